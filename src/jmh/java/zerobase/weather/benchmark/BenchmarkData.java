@@ -0,0 +1,77 @@
+package zerobase.weather.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// 벤치마크에서 같이 쓰는 일기 데이터
+final class BenchmarkData {
+
+    static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+    static final int DAYS = 3650;
+    static final String USER = "bench";
+
+    private static final Field DATE_WEATHER;
+
+    static {
+        try {
+            // 날씨 참조는 조회할 때 hibernate 가 채우는 필드라 setter 가 없다.
+            DATE_WEATHER = Diary.class.getDeclaredField("dateWeather");
+            DATE_WEATHER.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BenchmarkData() {
+    }
+
+    static Diary diary(int id, DateWeather dateWeather) {
+        Diary diary = new Diary();
+        diary.setId(id);
+        diary.setDateWeather(dateWeather);
+        diary.setText("diary " + id + " 오늘은 날씨가 맑아서 산책을 했다.");
+        try {
+            DATE_WEATHER.set(diary, dateWeather);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return diary;
+    }
+
+    // 하루에 일기 하나씩, size 일치
+    static List<Diary> diaries(int size) {
+        List<Diary> diaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DateWeather dateWeather = new DateWeather(FIRST_DATE.plusDays(i), "seoul", "Clear", "01d", 282.55);
+            diaries.add(diary(i + 1, dateWeather));
+        }
+        return diaries;
+    }
+
+    static List<DiaryDto> diaryDtos(int size) {
+        return diaries(size).stream()
+                .map(diary -> new DiaryDto(diary.getId(), diary.getDate(), diary.getCity(), diary.getText(),
+                        diary.getWeather(), diary.getIcon(), diary.getTemperature()))
+                .toList();
+    }
+
+    // H2 안에서 바로 일기 rows 건과 DAYS 일치 날씨를 만든다. (테스트의 DiarySeeder 와 같은 모양)
+    static void seed(JdbcTemplate jdbcTemplate, long rows) {
+        jdbcTemplate.update("insert into date_weather (date, city, weather, icon, temperature) "
+                + "select dateadd('DAY', x, date '" + FIRST_DATE + "'), 'seoul', 'Clear', '01d', 282.55 "
+                + "from system_range(0, " + (DAYS - 1) + ")");
+        jdbcTemplate.update("insert into diary (id, user_id, date, city, text) "
+                + "select x, '" + USER + "', dateadd('DAY', mod(x, " + DAYS + "), date '" + FIRST_DATE + "'), "
+                + "'seoul', concat('diary ', x) from system_range(1, " + rows + ")");
+        // 벤치마크 중 새로 만드는 일기 id 가 seed 한 id 와 겹치지 않게
+        jdbcTemplate.update("update id_sequence set next_val = ? where sequence_name = 'diary'", rows + 1);
+        jdbcTemplate.execute("analyze");
+    }
+}
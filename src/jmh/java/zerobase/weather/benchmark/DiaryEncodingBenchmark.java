@@ -0,0 +1,103 @@
+package zerobase.weather.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zerobase.weather.domain.Diary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// /read/diaries 응답(한 달, 일 년치 List<Diary>)의 형식별 크기와 응답 하나를 만드는 데 드는 서버 CPU 시간
+// json(기존), cbor, smile 을 각각 그대로/gzip(tomcat 압축과 같은 기본 레벨)으로 비교한다.
+// 전송 크기는 시작할 때 한 번 출력하고("bytes on the wire"), 측정값(us/op)은 직렬화 + 압축 시간이다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiaryEncodingBenchmark {
+
+    @Param({"31", "365"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private List<Diary> diaries;
+
+    @Setup
+    public void setUp() throws IOException {
+        // ResponseEncodingConfig 와 같은 설정 (java.time 모듈, 날짜는 문자열, smile 은 반복 문자열 공유)
+        objectMapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> SmileMapper.builder(SmileFactory.builder()
+                            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                    .findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> JsonMapper.builder().findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        };
+        diaries = BenchmarkData.diaries(size);
+
+        CountingOutputStream counter = new CountingOutputStream();
+        write(counter);
+        System.out.printf("%nsize=%d format=%s gzip=%s -> %d bytes (%.1f bytes/diary)%n",
+                size, format, gzip, counter.count, (double) counter.count / size);
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        write(counter);
+        return counter.count;
+    }
+
+    private void write(CountingOutputStream counter) throws IOException {
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(counter)) {
+                objectMapper.writeValue(out, diaries);
+            }
+        } else {
+            objectMapper.writeValue(counter, diaries);
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package zerobase.weather.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// 요청마다 하는 엔티티/DTO 매핑 비용
+// - 일기 작성: DateWeather -> Diary
+// - 조회 응답: Diary(+ 날씨) -> DiaryDto
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiaryMappingBenchmark {
+
+    private DateWeather dateWeather;
+    private Diary diary;
+
+    @Setup
+    public void setUp() {
+        dateWeather = new DateWeather(LocalDate.of(2024, 1, 1), "seoul", "Clear", "01d", 282.55);
+        diary = BenchmarkData.diary(1, dateWeather);
+    }
+
+    @Benchmark
+    public Diary diaryFromDateWeather() {
+        Diary nowDiary = new Diary();
+        nowDiary.setDateWeather(dateWeather);
+        nowDiary.setText("오늘의 일기");
+        nowDiary.setDate(dateWeather.getDate());
+        return nowDiary;
+    }
+
+    @Benchmark
+    public DiaryDto diaryDtoFromDiary() {
+        return new DiaryDto(diary.getId(), diary.getDate(), diary.getCity(), diary.getText(),
+                diary.getWeather(), diary.getIcon(), diary.getTemperature());
+    }
+}
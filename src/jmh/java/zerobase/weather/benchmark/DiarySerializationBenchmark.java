@@ -0,0 +1,62 @@
+package zerobase.weather.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 조회 응답 json 직렬화 비용 (/read/diaries 의 List<Diary>, 페이지/스트림 조회의 DiaryDto)
+// 출력은 버리고 직렬화만 측정한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiarySerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    // 스프링 부트 기본 ObjectMapper 와 같은 설정 (java.time 모듈, 날짜는 문자열로)
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private List<Diary> diaries;
+    private List<DiaryDto> diaryDtos;
+
+    @Setup
+    public void setUp() {
+        diaries = BenchmarkData.diaries(size);
+        diaryDtos = BenchmarkData.diaryDtos(size);
+    }
+
+    @Benchmark
+    public void serializeDiaries() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), diaries);
+    }
+
+    @Benchmark
+    public void serializeDiaryDtos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), diaryDtos);
+    }
+}
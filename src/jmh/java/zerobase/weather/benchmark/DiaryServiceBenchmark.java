@@ -0,0 +1,127 @@
+package zerobase.weather.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import zerobase.weather.WeatherApplication;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.WeatherClient;
+import zerobase.weather.service.WeatherParser;
+import zerobase.weather.service.WeatherQuotaLimiter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// DiaryService 를 H2(메모리, MySQL 모드) + 고정 응답 날씨 클라이언트로 띄워서 작성/조회 경로를 측정한다.
+// 외부 api 와 네트워크는 빼고 서비스, jpa, DB 비용만 본다. gc 프로파일러로 op당 할당량도 같이 나온다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class DiaryServiceBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private ConfigurableApplicationContext context;
+    private DiaryService diaryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WeatherApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database=h2",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "openweathermap.key=bench",
+                        "weather.ingest.backfill-on-startup=false",
+                        "logging.level.root=WARN")
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("stubWeatherClient",
+                        WeatherClient.class, StubWeatherClient::new, bd -> bd.setPrimary(true)))
+                .run();
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), ROWS);
+        diaryService = context.getBean(DiaryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static LocalDate randomDate() {
+        return BenchmarkData.FIRST_DATE.plusDays(ThreadLocalRandom.current().nextInt(BenchmarkData.DAYS - 30));
+    }
+
+    @Benchmark
+    public int createDiary() {
+        return diaryService.createDiary(BenchmarkData.USER, randomDate(), "seoul", "benchmark");
+    }
+
+    @Benchmark
+    public List<Diary> readDiary() {
+        return diaryService.readDiary(BenchmarkData.USER, randomDate(), "seoul");
+    }
+
+    @Benchmark
+    public List<Diary> readDiaries30Days() {
+        LocalDate startDate = randomDate();
+        return diaryService.readDiaries(BenchmarkData.USER, startDate, startDate.plusDays(29), "seoul");
+    }
+
+    @Benchmark
+    public DiaryPage readDiaryPage() {
+        LocalDate startDate = randomDate();
+        return diaryService.readDiaryPage(BenchmarkData.USER, startDate, startDate.plusDays(29), "seoul",
+                null, null, 100);
+    }
+
+    // 네트워크 없이 바로 날씨를 돌려주는 클라이언트
+    static class StubWeatherClient extends WeatherClient {
+
+        StubWeatherClient() {
+            super(new WeatherParser(), new WeatherQuotaLimiter(60_000, 1000, 1, Duration.ZERO),
+                    new SimpleMeterRegistry(), "bench", "http://127.0.0.1:1",
+                    Duration.ofSeconds(1), Duration.ofSeconds(1), 1, Duration.ofMillis(1), false);
+        }
+
+        @Override
+        public CompletableFuture<DateWeather> fetchAsync(String city) {
+            return CompletableFuture.completedFuture(fetch(city));
+        }
+
+        @Override
+        public DateWeather fetch(String city) {
+            return new DateWeather(LocalDate.now(), city, "Clear", "01d", 282.55);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package zerobase.weather.benchmark;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.service.WeatherParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 기존 parseWeather 경로(문자열로 전부 읽고 json-simple로 4번 파싱)와
+// WeatherParser 스트리밍 파싱 비교. 네트워크 호출은 빼고 같은 응답 바이트로만 측정한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherParseBenchmark {
+
+    static final byte[] RESPONSE = ("{\"coord\":{\"lon\":126.9778,\"lat\":37.5683},"
+            + "\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+            + "\"base\":\"stations\","
+            + "\"main\":{\"temp\":282.55,\"feels_like\":281.86,\"temp_min\":280.37,\"temp_max\":284.26,"
+            + "\"pressure\":1023,\"humidity\":100},"
+            + "\"visibility\":10000,\"wind\":{\"speed\":1.5,\"deg\":350},\"clouds\":{\"all\":1},"
+            + "\"dt\":1560350645,\"sys\":{\"type\":1,\"id\":5122,\"country\":\"KR\",\"sunrise\":1560343627,"
+            + "\"sunset\":1560396563},\"timezone\":32400,\"id\":1835848,\"name\":\"Seoul\",\"cod\":200}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final WeatherParser weatherParser = new WeatherParser();
+
+    @Benchmark
+    public DateWeather legacyParseWeather() throws IOException {
+        // getWeatherString(): BufferedReader + StringBuilder 로 응답 전체를 문자열로 만든다.
+        BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(RESPONSE)));
+        String inputLine;
+        StringBuilder response = new StringBuilder();
+        while ((inputLine = br.readLine()) != null) {
+            response.append(inputLine);
+        }
+        br.close();
+        String weatherData = response.toString();
+
+        // getWeatherFromApi(): 같은 문자열을 parseWeather로 4번 파싱
+        parseWeather(weatherData);
+        DateWeather dateWeather = new DateWeather();
+        dateWeather.setDate(LocalDate.now());
+        dateWeather.setWeather(parseWeather(weatherData).get("main").toString());
+        dateWeather.setIcon(parseWeather(weatherData).get("icon").toString());
+        dateWeather.setTemperature((Double) parseWeather(weatherData).get("temp"));
+        return dateWeather;
+    }
+
+    @Benchmark
+    public DateWeather streamingParse() throws IOException {
+        DateWeather dateWeather = weatherParser.parse(new ByteArrayInputStream(RESPONSE));
+        dateWeather.setDate(LocalDate.now());
+        return dateWeather;
+    }
+
+    // DiaryService.parseWeather 그대로 (upstream 재호출하던 System.out.println 만 제외)
+    private static Map<String, Object> parseWeather(String jsonString) {
+        JSONParser jsonParser = new JSONParser();
+        JSONObject jsonObject;
+        try {
+            jsonObject = (JSONObject) jsonParser.parse(jsonString);
+        } catch (ParseException e) {
+            throw new RuntimeException(e);
+        }
+        Map<String, Object> resultMap = new HashMap<>();
+        JSONObject mainData = (JSONObject) jsonObject.get("main");
+        resultMap.put("temp", mainData.get("temp"));
+        JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
+        JSONObject weatherData = (JSONObject) weatherArray.get(0);
+        resultMap.put("main", weatherData.get("main"));
+        resultMap.put("icon", weatherData.get("icon"));
+        return resultMap;
+    }
+}
@@ -10,6 +10,7 @@ import zerobase.weather.service.DiaryService;
 
 @EnableScheduling
 @EnableTransactionManagement
+// spring security 대신 JwtAuthInterceptor 로 일기 api 의 JWT 만 검증한다.
 @SpringBootApplication(exclude = SecurityAutoConfiguration.class)
 public class WeatherApplication {
 
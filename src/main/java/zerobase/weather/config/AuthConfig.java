@@ -0,0 +1,22 @@
+package zerobase.weather.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// 일기 api 인증 (diary.auth.*)
+// 요청 한도(ClientRateLimitInterceptor)를 먼저 보고 토큰을 검증해서, 잘못된 토큰을 마구 보내는 클라이언트도 한도에 걸리게 한다.
+@Configuration
+public class AuthConfig implements WebMvcConfigurer {
+
+    private final JwtAuthInterceptor jwtAuthInterceptor;
+
+    public AuthConfig(JwtAuthInterceptor jwtAuthInterceptor) {
+        this.jwtAuthInterceptor = jwtAuthInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(jwtAuthInterceptor).order(1);
+    }
+}
@@ -0,0 +1,97 @@
+package zerobase.weather.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import zerobase.weather.controller.DiaryController;
+import zerobase.weather.service.TokenBucket;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// DiaryController api 에 클라이언트(ip)별 토큰 버킷 요청 한도를 건다.
+// 한도를 넘으면 429 + Retry-After(다음 토큰까지 남은 초)로 응답한다.
+// 버킷은 한동안 요청이 없으면 버려서 클라이언트 수만큼 메모리가 계속 늘지 않게 한다.
+@Component
+@ConditionalOnProperty(name = "diary.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ClientRateLimitInterceptor implements HandlerInterceptor, MeterBinder {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final String clientHeader;
+    private final int trustedProxies;
+    private final LongAdder rejected = new LongAdder();
+
+    public ClientRateLimitInterceptor(@Value("${diary.rate-limit.requests-per-second:10}") double requestsPerSecond,
+                                      @Value("${diary.rate-limit.burst:20}") int burst,
+                                      @Value("${diary.rate-limit.client-header:}") String clientHeader,
+                                      @Value("${diary.rate-limit.trusted-proxies:1}") int trustedProxies,
+                                      @Value("${diary.rate-limit.idle-timeout:PT10M}") Duration idleTimeout,
+                                      @Value("${diary.rate-limit.max-clients:100000}") long maxClients) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = Math.max(1, trustedProxies);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !DiaryController.class.isAssignableFrom(handlerMethod.getBeanType())) {
+            return true;
+        }
+        TokenBucket bucket = buckets.get(clientKey(request), key -> new TokenBucket(burst, requestsPerSecond));
+        if (bucket.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable() + 999_999_999));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("diary.rate-limit.rejected", rejected, LongAdder::sum)
+                .description("requests rejected by the per-client rate limit")
+                .register(registry);
+        Gauge.builder("diary.rate-limit.clients", buckets, Cache::estimatedSize)
+                .description("clients with an active rate limit bucket")
+                .register(registry);
+    }
+
+    // 프록시 뒤라면 clientHeader(X-Forwarded-For 등)에서 우리 프록시가 붙인 주소, 아니면 접속 주소
+    // 앞쪽 주소는 클라이언트가 마음대로 넣을 수 있으므로, 프록시마다 하나씩 뒤에 붙이는 것을 이용해
+    // 오른쪽에서 trustedProxies 번째 주소를 쓴다. (주소가 그보다 적으면 맨 왼쪽)
+    private String clientKey(HttpServletRequest request) {
+        if (!clientHeader.isBlank()) {
+            String forwarded = request.getHeader(clientHeader);
+            if (forwarded != null && !forwarded.isBlank()) {
+                String[] hops = forwarded.split(",");
+                return hops[Math.max(0, hops.length - trustedProxies)].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -1,5 +1,7 @@
 package zerobase.weather.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -8,10 +10,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 //@RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR) // 잡아온 예외를 500번대 코드로 처리하겠다.
     @ExceptionHandler(Exception.class)
     public Exception handleAllException(){
-        System.out.println("error from GlobalExceptionHandler");
+        logger.error("error from GlobalExceptionHandler");
         return new Exception();
     }
 }
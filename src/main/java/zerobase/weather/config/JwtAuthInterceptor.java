@@ -0,0 +1,66 @@
+package zerobase.weather.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import zerobase.weather.controller.DiaryController;
+import zerobase.weather.service.JwtVerifier;
+
+import java.io.IOException;
+
+// DiaryController api 는 Authorization: Bearer <jwt> 가 있어야 한다.
+// 검증한 사용자 id 를 요청 속성(USER_ID_ATTRIBUTE)에 넣어두면 컨트롤러가 @RequestAttribute 로 받아서 쓴다.
+// 토큰이 없거나 잘못됐으면 401 + WWW-Authenticate 로 응답한다.
+// diary.auth.enabled=false 면 검증하지 않고 모든 요청을 diary.auth.default-user 의 요청으로 본다(로컬, 테스트용).
+@Component
+public class JwtAuthInterceptor implements HandlerInterceptor {
+
+    public static final String USER_ID_ATTRIBUTE = "zerobase.weather.userId";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier jwtVerifier;
+    private final boolean enabled;
+    private final String defaultUser;
+
+    public JwtAuthInterceptor(JwtVerifier jwtVerifier,
+                              @Value("${diary.auth.enabled:true}") boolean enabled,
+                              @Value("${diary.auth.default-user:anonymous}") String defaultUser) {
+        this.jwtVerifier = jwtVerifier;
+        this.enabled = enabled;
+        this.defaultUser = defaultUser;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !DiaryController.class.isAssignableFrom(handlerMethod.getBeanType())) {
+            return true;
+        }
+        if (!enabled) {
+            request.setAttribute(USER_ID_ATTRIBUTE, defaultUser);
+            return true;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String userId = isBearer(authorization)
+                ? jwtVerifier.verify(authorization.substring(BEARER_PREFIX.length()).trim())
+                : null;
+        if (userId == null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "유효한 인증 토큰이 필요합니다.");
+            return false;
+        }
+        request.setAttribute(USER_ID_ATTRIBUTE, userId);
+        return true;
+    }
+
+    private static boolean isBearer(String authorization) {
+        return authorization != null
+                && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length());
+    }
+}
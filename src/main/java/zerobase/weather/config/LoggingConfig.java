@@ -0,0 +1,38 @@
+package zerobase.weather.config;
+
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+// 로그 설정은 logback-spring.xml (비동기 json 파일), 요청 id 는 RequestIdFilter
+@Configuration
+public class LoggingConfig {
+
+    // 요청 처리를 넘겨받은 스레드(스트리밍 응답 등 applicationTaskExecutor)에서도 같은 requestId 로 로그가 남게 mdc 를 복사한다.
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                setContext(context);
+                try {
+                    runnable.run();
+                } finally {
+                    setContext(previous);
+                }
+            };
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package zerobase.weather.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 지연시간 메트릭 구성 (/actuator/prometheus 로 내보냄)
+// - 컨트롤러: http.server.requests (스프링 부트 기본, uri/status/outcome 태그)
+// - 서비스: diary.service (@Timed)
+// - 리포지토리: spring.data.repository.invocations (스프링 부트 기본)
+// - 날씨 api: weather.api.requests (WeatherClient), 호출 한도 weather.api.quota.* (WeatherQuotaLimiter), 대체 날씨 weather.degraded
+// - 요청 한도: diary.rate-limit.* (ClientRateLimitInterceptor)
+// - 캐시: weather.cache.* (DateWeatherCache), 커넥션 풀: hikaricp.connections.* (스프링 부트 기본)
+@Configuration
+public class MetricsConfig {
+
+    // @Timed 붙은 빈의 메서드 실행 시간을 기록
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -1,22 +1,38 @@
 package zerobase.weather.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
 
+// swagger 를 끄면(springdoc.api-docs.enabled=false) 만들지 않고, 켜져 있어도 /api-docs 를 처음 열 때 만든다.
+// 일기 api 는 JWT(Authorization: Bearer)가 필요해서 swagger-ui 의 Authorize 로 토큰을 넣을 수 있게 한다.
+@Lazy
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class OpenApiConfig {
+
+    private static final String BEARER_AUTH = "bearerAuth";
+
     @Bean
     public OpenAPI openAPI() {
         Info info = new Info()
                 .title("Weather Diary")
                 .version("1.0")
                 .description("날씨 일기 프로젝트");
+        SecurityScheme bearerAuth = new SecurityScheme()
+                .type(SecurityScheme.Type.HTTP)
+                .scheme("bearer")
+                .bearerFormat("JWT");
         return new OpenAPI()
-                .components(new Components())
+                .components(new Components().addSecuritySchemes(BEARER_AUTH, bearerAuth))
+                .addSecurityItem(new SecurityRequirement().addList(BEARER_AUTH))
                 .info(info);
     }
 }
@@ -0,0 +1,24 @@
+package zerobase.weather.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// 클라이언트별 요청 한도 (diary.rate-limit.*), diary.rate-limit.enabled=false 면 끈다.
+// 날씨 api 호출 한도는 따로 WeatherQuotaLimiter 가 건다.
+@Configuration
+@ConditionalOnProperty(name = "diary.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final ClientRateLimitInterceptor clientRateLimitInterceptor;
+
+    public RateLimitConfig(ClientRateLimitInterceptor clientRateLimitInterceptor) {
+        this.clientRateLimitInterceptor = clientRateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(clientRateLimitInterceptor);
+    }
+}
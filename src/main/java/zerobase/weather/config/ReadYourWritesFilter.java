@@ -0,0 +1,66 @@
+package zerobase.weather.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// 방금 쓴 일기가 복제본에 아직 안 넘어가서 안 보이는 일이 없도록
+// 쓰기 요청(GET/HEAD 가 아닌 요청)에 stickiness 동안 유지되는 쿠키를 붙이고,
+// 쿠키가 있는 요청은 readOnly 트랜잭션도 primary 에서 읽게 한다. stickiness 가 0 이면 끈다.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "diary-read-primary";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesFilter(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (stickiness.isZero() || stickiness.isNegative()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (isWrite(request)) {
+            // 응답이 커밋되기 전에 붙여야 하므로 처리 전에 넣는다.
+            Cookie cookie = new Cookie(COOKIE_NAME, "1");
+            cookie.setMaxAge((int) Math.max(1, stickiness.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        ReplicaRoutingDataSource.forcePrimary(hasCookie(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.forcePrimary(false);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+package zerobase.weather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기 복제본 라우팅 (diary.datasource.replica.urls 가 있을 때만)
+// primary 는 spring.datasource.*, 복제본은 같은 계정/풀 설정(spring.datasource.hikari.*)으로 만든다.
+// 스프링 부트 기본 DataSource 대신 LazyConnectionDataSourceProxy(ReplicaRoutingDataSource) 를 쓴다.
+@Configuration
+@ConditionalOnExpression("!'${diary.datasource.replica.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties, Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${diary.datasource.replica.urls}") List<String> replicaUrls,
+            @Value("${diary.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${diary.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${diary.datasource.replica.connection-timeout:PT1S}") Duration replicaConnectionTimeout) {
+        HikariDataSource primary = pool(properties, environment, meterRegistry);
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(properties, environment, meterRegistry);
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+            // 죽은 복제본 때문에 요청이 오래 기다리거나 서버가 못 뜨지 않게
+            replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas,
+                (int) Math.max(1, replicaConnectionTimeout.toSeconds()));
+    }
+
+    // 실제 커넥션은 첫 sql 을 실행할 때(readOnly 여부가 정해진 뒤) 라우팅해서 받는다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // 쓰기 요청 후 diary.datasource.read-your-writes 동안은 같은 클라이언트의 읽기를 primary 로
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${diary.datasource.read-your-writes:PT5S}") Duration stickiness) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(stickiness));
+    }
+
+    // spring.datasource.* 로 hikari 풀을 만들고 spring.datasource.hikari.* 설정을 그대로 적용한다.
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+        // 부트가 만든 풀이 아니어서 hikaricp.connections.* 메트릭을 직접 연결한다.
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return dataSource;
+    }
+}
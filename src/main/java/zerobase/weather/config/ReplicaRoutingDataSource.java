@@ -0,0 +1,149 @@
+package zerobase.weather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// readOnly 트랜잭션은 복제본(replica) 중 하나로, 나머지(쓰기, 트랜잭션 밖)는 primary 로 보낸다.
+// - 복제본은 돌아가면서(round-robin) 쓰고, 상태 확인에 실패한 복제본은 다시 살아날 때까지 빼둔다.
+// - 살아있는 복제본이 없거나 커넥션을 못 받으면 primary 에서 읽는다.
+// - forcePrimary 가 켜진 스레드(방금 쓴 클라이언트의 요청, ReadYourWritesFilter)는 readOnly 라도 primary 에서 읽는다.
+// 트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않으므로 LazyConnectionDataSourceProxy 로 감싸서 써야 한다.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.name(), replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static void forcePrimary(boolean force) {
+        if (force) {
+            FORCE_PRIMARY.set(Boolean.TRUE);
+        } else {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || FORCE_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica == null ? PRIMARY : replica.name();
+    }
+
+    // 고른 복제본에서 커넥션을 못 받으면 그 복제본을 빼고 primary 에서 받는다.
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        Replica replica = replicas.stream().filter(candidate -> candidate.name().equals(key)).findFirst().orElseThrow();
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.markDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    // 주기적으로 복제본마다 커넥션을 받아서 살아있는지 확인한다.
+    @Scheduled(fixedDelayString = "${diary.datasource.replica.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    public int healthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        void markUp() {
+            if (!healthy) {
+                logger.info("replica {} is back, routing reads to it again", name());
+            }
+            healthy = true;
+        }
+
+        void markDown(SQLException cause) {
+            if (healthy) {
+                logger.warn("replica {} is unavailable, reading from primary until it recovers: {}",
+                        name(), cause == null ? "invalid connection" : cause.getMessage());
+            }
+            healthy = false;
+        }
+    }
+}
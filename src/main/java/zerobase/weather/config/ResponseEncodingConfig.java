@@ -0,0 +1,32 @@
+package zerobase.weather.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// 조회 응답을 json 대신 바이너리 형식으로도 내려준다 (Accept 헤더로 고른다).
+// - application/cbor
+// - application/x-jackson-smile: 반복되는 짧은 문자열 값(도시, 날씨, 아이콘)은 처음 한 번만 쓰고 뒤에서는 참조한다.
+// 스프링 부트의 json ObjectMapper 와 같은 설정(spring.jackson.*, java.time 모듈)으로 만든다.
+// 압축(gzip)은 server.compression.* 로 tomcat 이 한다.
+@Configuration
+public class ResponseEncodingConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+}
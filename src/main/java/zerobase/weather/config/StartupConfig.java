@@ -0,0 +1,28 @@
+package zerobase.weather.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import zerobase.weather.controller.DiaryController;
+
+// spring.main.lazy-initialization=true (fast 프로필)에서도 시작할 때 바로 만들어야 하는 빈
+// - 일기 api(DiaryController)와 그 의존 빈(서비스, 리포지토리, JPA): 첫 요청이 빈 생성을 기다리지 않게
+// - @Scheduled 메서드가 있는 빈: 만들어지지 않으면 스케줄에 등록되지 않는다.
+// 나머지(springdoc, OpenApiConfig, actuator 엔드포인트 등)는 처음 쓸 때 만든다.
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                DiaryController.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
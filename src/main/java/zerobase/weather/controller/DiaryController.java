@@ -1,15 +1,47 @@
 package zerobase.weather.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import zerobase.weather.config.JwtAuthInterceptor;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryImportResult;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiarySearchPage;
+import zerobase.weather.dto.DiaryStats;
+import zerobase.weather.dto.DiaryVersionTag;
+import zerobase.weather.service.DiaryBulkService;
 import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.DiaryStatsService;
+import zerobase.weather.service.WeatherCacheStats;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.function.Supplier;
 
 // controller는 외부(client)로부터 받는 응답 또는 보내는 요청 등등에 관련된
 // 가장 맞닿아있는 클래스에여
@@ -19,61 +51,319 @@ import java.util.List;
 @RestController // 기본 컨트롤러 + http 상태코드를 지정해서 내려줌
 public class DiaryController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private final DiaryService diaryService;
+    private final DiaryStatsService diaryStatsService;
+    private final DiaryBulkService diaryBulkService;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory smileFactory;
+    private final Duration pastMaxAge;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public DiaryController(DiaryService diaryService) {
+    public DiaryController(DiaryService diaryService, DiaryStatsService diaryStatsService,
+                           DiaryBulkService diaryBulkService, ObjectMapper objectMapper,
+                           MappingJackson2SmileHttpMessageConverter smileConverter,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${diary.http.past-max-age:PT1H}") Duration pastMaxAge) {
         this.diaryService = diaryService;
+        this.diaryStatsService = diaryStatsService;
+        this.diaryBulkService = diaryBulkService;
+        this.objectMapper = objectMapper;
+        this.smileFactory = smileConverter.getObjectMapper().getFactory();
+        this.pastMaxAge = pastMaxAge;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     // api의 경로(path)를 지정해주자
     @Operation(summary = "날씨 일기 신규 작성", description = "작성을 원하는 날짜 입력 후 원하는 내용 작성시 해당 일자에 신규 일기 저장")
     @PostMapping("/create/diary") // get은 조회할 때 많이 쓰고 post는 저장할 때 많이 써요
-     void createDiary(
+    ResponseEntity<Integer> createDiary(
+            @Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
              @Parameter(name = "date", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date,  //@DateTimeFormat 쓴 이유 : 년월일에 대한 사람마다 표기 방식이 다를 수 있기 때문에 표기의 통일을 위해 포맷 지정
+            @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+            @RequestParam(required = false) String city,
             @RequestBody String text // requestparam : 파라미터 형식으로 입력하겠다 @Requestbody : 바디값으로 보내줄 내용(http: 에서 body 값에 이걸 보내겠다)
             ){
-        diaryService.createDiary(date, text);
-
-
+        // 비동기 저장 모드면 큐에 넣고 202(Accepted) + id 로 바로 응답
+        if (diaryService.isAsyncIngest()) {
+            return ResponseEntity.accepted().body(diaryService.enqueueDiary(userId, date, city, text));
+        }
+        return ResponseEntity.ok(diaryService.createDiary(userId, date, city, text));
     }
     @Operation(summary = "기존 날씨 일기 조회", description = "조회를 원하는 날짜 입력 시 기존 저장된 일기 조회")
     @GetMapping("/read/diary")
-    List<Diary> readDiary
-            (@Parameter(name = "date", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
-                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date){
-       return diaryService.readDiary(date);
+    ResponseEntity<List<Diary>> readDiary
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "date", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city,
+             WebRequest webRequest){
+       return conditional(webRequest, userId, date, date, city, () -> diaryService.readDiary(userId, date, city));
     }
 
 
     @Operation(summary = "원하는 기간동안의 기존 날씨 일기 조회", description = "조회를 원하는 기간 입력 시 기존 저장된 일기 조회")
     @GetMapping("/read/diaries")
-    List<Diary> readDiaries
-            (@Parameter(name = "startDate", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+    ResponseEntity<List<Diary>> readDiaries
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "startDate", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate startDate,
+             @Parameter(name = "endDate", description = "YYYY-MM-DD", example = "2024-01-31", required = true)
+             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city,
+             WebRequest webRequest){
+
+
+        return conditional(webRequest, userId, startDate, endDate, city,
+                () -> diaryService.readDiaries(userId, startDate, endDate, city));
+    }
+
+    // 조건부 GET: 기간의 버전(diary_version)만 먼저 보고, 클라이언트가 가진 ETag 와 같으면 일기를 읽지 않고 304
+    // 지난 기간은 잘 바뀌지 않으므로 diary.http.past-max-age 동안 캐시할 수 있게 하고,
+    // 오늘이 포함된 기간은 매번 ETag 로 다시 확인하게 한다.
+    // 사용자마다 응답이 다르므로 공유 캐시(프록시)에는 남기지 않고(private), Authorization 별로 구분한다.
+    // 버전과 일기는 readOnly 트랜잭션 하나(커넥션 하나, 같은 복제본)에서 읽는다. 따로 읽으면 복제 지연이 다른
+    // 복제본에서 읽힐 수 있어서, 옛 일기가 새 ETag 로 캐시되고 다음 수정 전까지 304 로 남는다.
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String userId, LocalDate startDate,
+                                              LocalDate endDate, String city, Supplier<T> body) {
+        return readOnlyTransaction.execute(status -> conditionalInTransaction(
+                webRequest, userId, startDate, endDate, city, body));
+    }
+
+    private <T> ResponseEntity<T> conditionalInTransaction(WebRequest webRequest, String userId, LocalDate startDate,
+                                                           LocalDate endDate, String city, Supplier<T> body) {
+        DiaryVersionTag tag = diaryService.getDiaryVersion(userId, startDate, endDate, city);
+        CacheControl cacheControl = endDate.isBefore(LocalDate.now())
+                ? CacheControl.maxAge(pastMaxAge).cachePrivate()
+                : CacheControl.noCache();
+        if (webRequest.checkNotModified(tag.getETag(), tag.getLastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tag.getETag())
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(tag.getETag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION);
+        if (tag.getLastModified() != null) {
+            response.lastModified(tag.getLastModifiedMillis());
+        }
+        return response.body(body.get());
+    }
+
+    @Operation(summary = "원하는 기간동안의 기존 날씨 일기 페이지 조회",
+            description = "날짜, id 순서로 size 만큼 조회. 다음 페이지는 응답의 nextDate, nextId 를 afterDate, afterId 로 넘겨서 조회")
+    @GetMapping("/read/diaries/page")
+    DiaryPage readDiaryPage
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "startDate", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate startDate,
              @Parameter(name = "endDate", description = "YYYY-MM-DD", example = "2024-01-31", required = true)
-             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate){
+             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city,
+             @Parameter(name = "afterDate", description = "이전 페이지의 nextDate")
+             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate afterDate,
+             @Parameter(name = "afterId", description = "이전 페이지의 nextId")
+             @RequestParam(required = false) Integer afterId,
+             @Parameter(name = "size", description = "페이지 크기(최대 1000)", example = "100")
+             @RequestParam(defaultValue = "100") int size){
+        return diaryService.readDiaryPage(userId, startDate, endDate, city, afterDate, afterId, size);
+    }
 
+    @Operation(summary = "일기 내용 검색",
+            description = "띄어쓰기로 나눈 검색어(2글자 이상)를 모두 포함하는 일기를 관련도 순으로 조회. 기간, 날씨로 거를 수 있다. "
+                    + "보관된(diary.archive.after 보다 오래된) 일기도 찾는다.")
+    @GetMapping("/read/diaries/search")
+    DiarySearchPage searchDiaries
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "query", description = "검색어", example = "산책 공원", required = true)
+                    @RequestParam String query,
+             @Parameter(name = "startDate", description = "YYYY-MM-DD (없으면 처음부터)", example = "2024-01-01")
+             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate startDate,
+             @Parameter(name = "endDate", description = "YYYY-MM-DD (없으면 끝까지)", example = "2024-12-31")
+             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate,
+             @Parameter(name = "weather", description = "날씨 (Clear, Rain, Snow ...)", example = "Rain")
+             @RequestParam(required = false) String weather,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city,
+             @Parameter(name = "page", description = "0부터 시작하는 페이지 번호", example = "0")
+             @RequestParam(defaultValue = "0") int page,
+             @Parameter(name = "size", description = "페이지 크기(최대 100)", example = "20")
+             @RequestParam(defaultValue = "20") int size){
+        return diaryService.searchDiaries(userId, query, startDate, endDate, weather, city, page, size);
+    }
 
-        return diaryService.readDiaries(startDate, endDate);
+    @Operation(summary = "원하는 기간동안의 기존 날씨 일기 스트리밍 조회",
+            description = "기간 내 일기를 DB 커서로 읽으면서 바로 내려준다. "
+                    + "format=ndjson(한 줄에 하나), json(배열) 또는 smile(바이너리, 값을 이어서)")
+    @GetMapping("/read/diaries/stream")
+    ResponseEntity<StreamingResponseBody> streamDiaries
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "startDate", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate startDate,
+             @Parameter(name = "endDate", description = "YYYY-MM-DD", example = "2024-01-31", required = true)
+             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city,
+             @Parameter(name = "format", description = "ndjson, json 또는 smile", example = "ndjson")
+             @RequestParam(defaultValue = "ndjson") String format){
+        boolean jsonArray = "json".equalsIgnoreCase(format);
+        boolean smile = "smile".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            JsonFactory factory = smile ? smileFactory : objectMapper.getFactory();
+            try (JsonGenerator generator = factory.createGenerator(out)) {
+                if (jsonArray) {
+                    generator.writeStartArray();
+                } else if (!smile) {
+                    // ndjson: 최상위 값 사이 구분자를 줄바꿈으로
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                }
+                diaryService.streamDiaries(userId, startDate, endDate, city, diary -> {
+                    try {
+                        generator.writeObject(diary);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (jsonArray) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(smile ? APPLICATION_SMILE : jsonArray ? MediaType.APPLICATION_JSON : APPLICATION_NDJSON)
+                .body(body);
+    }
+    @Operation(summary = "날씨 일기 일괄 가져오기",
+            description = "csv(첫 행에 date, city, text 컬럼) 또는 ndjson(한 줄에 {date, city, text}) body 를 읽으면서 "
+                    + "청크 단위로 저장. 잘못된 행은 건너뛰고, 저장/건너뛴 수와 처리량을 반환. "
+                    + "지난 날짜는 저장된 날씨가 있을 때만 붙이고, 없으면 날씨 없이 저장")
+    @PostMapping(value = "/import/diaries", consumes = MediaType.ALL_VALUE)
+    DiaryImportResult importDiaries(
+            @Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+            @Parameter(name = "format", description = "csv 또는 ndjson", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body // body 를 통째로 받지 않고 스트림으로 읽는다.
+    ){
+        return diaryBulkService.importDiaries(userId, body, DiaryBulkService.Format.of(format));
     }
+
+    @Operation(summary = "날씨 일기 일괄 내보내기",
+            description = "기간 내 일기를 DB 커서로 읽으면서 csv 또는 ndjson 파일로 내려준다. csv 는 일괄 가져오기에 다시 넣을 수 있다.")
+    @GetMapping("/export/diaries")
+    ResponseEntity<StreamingResponseBody> exportDiaries
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "startDate", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate startDate,
+             @Parameter(name = "endDate", description = "YYYY-MM-DD", example = "2024-12-31", required = true)
+             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city,
+             @Parameter(name = "format", description = "csv 또는 ndjson", example = "csv")
+             @RequestParam(defaultValue = "csv") String format){
+        DiaryBulkService.Format bulkFormat = DiaryBulkService.Format.of(format);
+        boolean csv = bulkFormat == DiaryBulkService.Format.CSV;
+        StreamingResponseBody body = out -> diaryBulkService.exportDiaries(userId, startDate, endDate, city,
+                bulkFormat, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("diaries." + (csv ? "csv" : "ndjson")).build().toString())
+                .body(body);
+    }
+
     @Operation(summary = "기존 날씨 일기 수정", description = "수정을 원하는 날짜를 입력 후 수정 내용 작성시 일기 내용 수정")
     @PutMapping("/update/diary")
-    void updateDiary(
+    int updateDiary(
+            @Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
             @Parameter(name = "date", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date,
+            @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+            @RequestParam(required = false) String city,
             @RequestBody String text
     ){
-        diaryService.updateDiary(date, text);
+        return diaryService.updateDiary(userId, date, city, text);
+    }
 
+    @Operation(summary = "특정 날짜의 날씨 일기 일괄 수정", description = "수정을 원하는 날짜의 모든 일기 내용을 한 번에 수정, 수정된 일기 수 반환")
+    @PutMapping("/update/diaries")
+    int updateDiaries(
+            @Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+            @Parameter(name = "date", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date,
+            @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+            @RequestParam(required = false) String city,
+            @RequestBody String text
+    ){
+        return diaryService.updateDiaries(userId, date, city, text);
     }
 
     @Operation(summary = "기존 날씨 일기 삭제", description = "삭제을 원하는 날짜를 입력 시 기존 일기 삭제")
-    void deleteDiary(
+    @DeleteMapping("/delete/diary")
+    int deleteDiary(
+            @Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
             @Parameter(name = "date", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate date,
+            @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+            @RequestParam(required = false) String city
     ){
-        diaryService.deleteDiary(date);
+        return diaryService.deleteDiary(userId, date, city);
+    }
+
+    @Operation(summary = "원하는 기간동안의 날씨 일기 일괄 삭제", description = "삭제를 원하는 기간 입력 시 기간 내 일기 전체 삭제, 삭제된 일기 수 반환")
+    @DeleteMapping("/delete/diaries")
+    int deleteDiaries(
+            @Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+            @Parameter(name = "startDate", description = "YYYY-MM-DD", example = "2024-01-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate startDate,
+            @Parameter(name = "endDate", description = "YYYY-MM-DD", example = "2024-01-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)  LocalDate endDate,
+            @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+            @RequestParam(required = false) String city
+    ){
+        return diaryService.deleteDiaries(userId, startDate, endDate, city);
+    }
+
+    @Operation(summary = "월별 일기 통계 조회",
+            description = "기간 내 달마다 일기 수, 평균 온도, 날씨 종류별 일기 수 조회 (미리 집계된 월 통계를 읽음)")
+    @GetMapping("/read/stats/monthly")
+    List<DiaryStats> readMonthlyStats
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "startMonth", description = "YYYY-MM", example = "2024-01", required = true)
+                    @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth startMonth,
+             @Parameter(name = "endMonth", description = "YYYY-MM", example = "2024-12", required = true)
+             @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth endMonth,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city){
+        return diaryStatsService.readMonthly(userId, startMonth, endMonth, city);
+    }
+
+    @Operation(summary = "연도별 일기 통계 조회", description = "기간 내 연도마다 일기 수, 평균 온도, 날씨 종류별 일기 수 조회")
+    @GetMapping("/read/stats/yearly")
+    List<DiaryStats> readYearlyStats
+            (@Parameter(hidden = true) @RequestAttribute(JwtAuthInterceptor.USER_ID_ATTRIBUTE) String userId,
+             @Parameter(name = "startYear", description = "YYYY", example = "2020", required = true)
+                    @RequestParam int startYear,
+             @Parameter(name = "endYear", description = "YYYY", example = "2024", required = true)
+             @RequestParam int endYear,
+             @Parameter(name = "city", description = "도시 (없으면 기본 도시)", example = "seoul")
+             @RequestParam(required = false) String city){
+        return diaryStatsService.readYearly(userId, startYear, endYear, city);
+    }
+
+    @Operation(summary = "날씨 캐시 통계 조회", description = "날씨 캐시의 hit/miss 횟수와 로딩 시간 조회")
+    @GetMapping("/read/weather/cache-stats")
+    WeatherCacheStats readWeatherCacheStats(){
+        return diaryService.getWeatherCacheStats();
     }
 
 }
@@ -0,0 +1,41 @@
+package zerobase.weather.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// 보관 기간(diary.archive.after)이 지나서 diary 에서 옮겨온 일기 (cold)
+// 컬럼과 인덱스는 diary 와 같고, id 는 diary 에서 받은 그대로 쓴다.
+// 운영(MySQL)에서는 압축 테이블로 만든다(db/mysql/diary-archive.sql).
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "diary_archive", indexes = {
+        @Index(name = "idx_diary_archive_user_city_date_id", columnList = "user_id, city, date, id"),
+        @Index(name = "idx_diary_archive_city_date_id", columnList = "city, date, id")
+})
+public class ArchivedDiary {
+    @Id
+    private int id;
+    @Column(name = "user_id", length = 64, nullable = false)
+    private String userId;
+    private String text;
+    private LocalDate date;
+    private String city;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumns(value = {
+            @JoinColumn(name = "date", referencedColumnName = "date", insertable = false, updatable = false),
+            @JoinColumn(name = "city", referencedColumnName = "city", insertable = false, updatable = false)
+    }, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private DateWeather dateWeather;
+
+    // 조회 응답은 hot 일기와 같은 모양으로 내려준다.
+    public Diary toDiary() {
+        return new Diary(id, userId, text, date, city, dateWeather);
+    }
+}
@@ -2,28 +2,39 @@ package zerobase.weather.domain;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Table(name = "date_weather")
+@IdClass(DateWeatherId.class) // 날짜 + 도시 별로 날씨 하나
 public class DateWeather {
     @Id
     private LocalDate date;
+    @Id
+    private String city;
     private String weather;
     private String icon;
     private double temperature;
+    // 날씨 api 를 못 불러서 그 도시의 마지막 날씨로 대신 채운 임시 행이면 true
+    // 그날 쓴 일기가 응답과 같은 날씨로 읽히도록 저장해 두고, 수집(WeatherIngestionService)이 실제 날씨로 덮어쓴다.
+    @ColumnDefault("false")
+    private boolean degraded;
 
-
-
-
+    public DateWeather(LocalDate date, String city, String weather, String icon, double temperature) {
+        this.date = date;
+        this.city = city;
+        this.weather = weather;
+        this.icon = icon;
+        this.temperature = temperature;
+    }
 }
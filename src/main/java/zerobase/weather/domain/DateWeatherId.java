@@ -0,0 +1,19 @@
+package zerobase.weather.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// DateWeather 의 복합키 (date, city)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DateWeatherId implements Serializable {
+    private LocalDate date;
+    private String city;
+}
@@ -1,6 +1,7 @@
 package zerobase.weather.domain;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,23 +13,58 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "diary")
+// 모든 조회/삭제가 (사용자, city, date) 로 걸러지고 (date, id) 순서로 읽으므로 복합 인덱스를 둔다.
+// 사용자가 맨 앞이라 사용자 수가 늘어도 한 사용자의 조회는 자기 일기 범위만 읽는다.
+// 도시 전체(모든 사용자)를 읽는 월 재집계, 보관 작업은 (city, date, id) 인덱스로 읽는다.
+@Table(name = "diary", indexes = {
+        @Index(name = "idx_diary_user_city_date_id", columnList = "user_id, city, date, id"),
+        @Index(name = "idx_diary_city_date_id", columnList = "city, date, id")
+})
 public class Diary {
+    // IDENTITY 는 insert 해봐야 id를 알 수 있어서 jdbc batch insert 가 꺼진다.
+    // id_sequence 테이블에서 50개씩 미리 받아와(pooled-lo) 메모리에서 나눠준다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "diary_id")
+    @TableGenerator(name = "diary_id", table = "id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "diary", initialValue = 1, allocationSize = 50)
     private int id;
-    private String weather;
-    private String icon;
-    private double temperature;
+    // 일기를 쓴 사용자 (jwt 의 subject). 요청한 사용자 자신이므로 응답에는 넣지 않는다.
+    @JsonIgnore
+    @Column(name = "user_id", length = 64, nullable = false)
+    private String userId;
     private String text;
     private LocalDate date;
+    private String city;
 
+    // 날씨는 일기마다 복사하지 않고 (date, city) 로 date_weather 를 참조만 한다.
+    // 키는 위의 date, city 컬럼을 같이 쓰므로 여기서는 읽기 전용, 조회할 때 필요하면 join 해서 채운다.
+    // 기존 데이터를 옮기는 동안 날씨 행이 없을 수 있어서 fk 는 걸지 않는다.
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumns(value = {
+            @JoinColumn(name = "date", referencedColumnName = "date", insertable = false, updatable = false),
+            @JoinColumn(name = "city", referencedColumnName = "city", insertable = false, updatable = false)
+    }, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private DateWeather dateWeather;
 
+
+    // 날씨의 키(날짜, 도시)만 가져온다.
     public void setDateWeather(DateWeather dateWeather){
         this.date = dateWeather.getDate();
-        this.weather = dateWeather.getWeather();
-        this.icon = dateWeather.getIcon();
-        this.temperature = dateWeather.getTemperature();
+        this.city = dateWeather.getCity();
+    }
+
+    // 응답 json 모양(weather, icon, temperature)은 그대로 유지
+    public String getWeather() {
+        return dateWeather == null ? null : dateWeather.getWeather();
+    }
+
+    public String getIcon() {
+        return dateWeather == null ? null : dateWeather.getIcon();
+    }
+
+    public Double getTemperature() {
+        return dateWeather == null ? null : dateWeather.getTemperature();
     }
 
 }
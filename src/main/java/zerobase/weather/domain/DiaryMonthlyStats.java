@@ -0,0 +1,38 @@
+package zerobase.weather.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// (사용자, 도시, 월, 날씨)별 일기 집계
+// 일기를 쓰고 지울 때 같이 더하고 빼서, 통계 조회는 일기 행이 아니라 월 수만큼만 읽는다.
+// 날씨가 없는 일기는 weather = 'Unknown' 으로 세고 온도 평균에서는 뺀다.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "diary_monthly_stats",
+        indexes = @Index(name = "idx_diary_monthly_stats_user_city_month", columnList = "user_id, city, month_start"))
+@IdClass(DiaryMonthlyStatsId.class)
+public class DiaryMonthlyStats {
+    @Id
+    @Column(name = "user_id", length = 64)
+    private String userId;
+    @Id
+    private String city;
+    @Id
+    private LocalDate monthStart; // 그 달의 1일
+    @Id
+    private String weather;
+    private long diaryCount;
+    private double temperatureSum;
+    private long temperatureCount;
+}
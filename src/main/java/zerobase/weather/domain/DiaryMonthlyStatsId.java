@@ -0,0 +1,21 @@
+package zerobase.weather.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// DiaryMonthlyStats 의 복합키 (userId, city, monthStart, weather)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DiaryMonthlyStatsId implements Serializable {
+    private String userId;
+    private String city;
+    private LocalDate monthStart;
+    private String weather;
+}
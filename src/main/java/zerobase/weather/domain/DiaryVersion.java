@@ -0,0 +1,38 @@
+package zerobase.weather.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// (사용자, 날짜, 도시)별 일기 버전
+// 그 날짜의 일기나 날씨가 바뀔 때마다 revision 이 1씩 오른다. 조회 응답의 ETag/Last-Modified 를
+// 일기를 읽지 않고 이 작은 테이블만 보고 만들 수 있다.
+// 사용자별로 나눠서, 다른 사용자의 일기 작성이 같은 행의 락을 기다리거나 내 ETag 를 바꾸지 않는다.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+// 날씨 갱신은 모든 사용자의 (도시, 날짜) 행을 올리므로 pk 와 별도로 (city, date) 인덱스를 둔다.
+@Table(name = "diary_version",
+        indexes = @Index(name = "idx_diary_version_city_date", columnList = "city, date"))
+@IdClass(DiaryVersionId.class)
+public class DiaryVersion {
+    @Id
+    @Column(name = "user_id", length = 64)
+    private String userId;
+    @Id
+    private LocalDate date;
+    @Id
+    private String city;
+    private long revision;
+    private LocalDateTime modifiedAt;
+}
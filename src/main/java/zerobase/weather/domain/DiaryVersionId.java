@@ -0,0 +1,20 @@
+package zerobase.weather.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// DiaryVersion 의 복합키 (userId, date, city)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DiaryVersionId implements Serializable {
+    private String userId;
+    private LocalDate date;
+    private String city;
+}
@@ -0,0 +1,25 @@
+package zerobase.weather.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 여러 서버 중 한 곳에서만 스케줄 작업을 돌리기 위한 잠금 (작업 이름 별로 한 행)
+// lockedUntil 이 지나면 잡고 있던 서버가 죽었더라도 다른 서버가 가져갈 수 있다.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLock {
+    @Id
+    private String name;
+    private LocalDateTime lockedUntil;
+    private LocalDateTime lockedAt;
+    private String lockedBy;
+}
@@ -0,0 +1,20 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// 조회 응답용 읽기 전용 일기 데이터
+// jpql 생성자 표현식(select new ...)으로 바로 만들어서 영속성 컨텍스트에 엔티티가 쌓이지 않게 한다.
+@Getter
+@AllArgsConstructor
+public class DiaryDto {
+    private final int id;
+    private final LocalDate date;
+    private final String city;
+    private final String text;
+    private final String weather;
+    private final String icon;
+    private final Double temperature; // 날씨 행이 없으면 null
+}
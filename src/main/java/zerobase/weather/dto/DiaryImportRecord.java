@@ -0,0 +1,19 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// 일괄 가져오기의 한 줄(ndjson) / 한 행(csv). 내보낸 파일의 나머지 필드(id, weather ...)는 무시한다.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaryImportRecord {
+    private LocalDate date;
+    private String city; // 없으면 기본 도시
+    private String text;
+}
@@ -0,0 +1,18 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 일괄 가져오기 결과. 잘못된 행은 건너뛰고 처음 몇 개의 사유만 errors 에 담는다.
+@Getter
+@AllArgsConstructor
+public class DiaryImportResult {
+    private final long imported;
+    private final long skipped;
+    private final long withoutWeather; // 날씨를 못 구해서 날씨 없이 저장한 일기 수
+    private final List<String> errors;
+    private final long elapsedMillis;
+    private final double diariesPerSecond;
+}
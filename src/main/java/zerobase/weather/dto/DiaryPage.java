@@ -0,0 +1,17 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// (date, id) 기준 keyset 페이지 응답
+// 다음 페이지는 nextDate, nextId 를 afterDate, afterId 로 넘겨서 요청한다. 마지막 페이지면 둘 다 null
+@Getter
+@AllArgsConstructor
+public class DiaryPage {
+    private final List<DiaryDto> diaries;
+    private final LocalDate nextDate;
+    private final Integer nextId;
+}
@@ -0,0 +1,20 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// 검색 결과 일기 한 건 + 검색어와의 관련도(score, 클수록 앞에)
+@Getter
+@AllArgsConstructor
+public class DiarySearchHit {
+    private final int id;
+    private final LocalDate date;
+    private final String city;
+    private final String text;
+    private final String weather;
+    private final String icon;
+    private final Double temperature; // 날씨 행이 없으면 null
+    private final double score;
+}
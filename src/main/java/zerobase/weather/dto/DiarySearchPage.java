@@ -0,0 +1,16 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 관련도 순 검색 결과 페이지. 전체 건수는 세지 않고(전체 매칭을 다 읽어야 해서) 다음 페이지 유무만 알려준다.
+@Getter
+@AllArgsConstructor
+public class DiarySearchPage {
+    private final List<DiarySearchHit> hits;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+}
@@ -0,0 +1,16 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+// 기간(월: 2024-01, 연: 2024)별 일기 통계
+@Getter
+@AllArgsConstructor
+public class DiaryStats {
+    private final String period;
+    private final long diaryCount;
+    private final Double averageTemperature; // 날씨가 있는 일기가 없으면 null
+    private final Map<String, Long> weatherCounts; // 날씨 종류별 일기 수
+}
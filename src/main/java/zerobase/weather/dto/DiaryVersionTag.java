@@ -0,0 +1,29 @@
+package zerobase.weather.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// 조회 응답의 조건부 요청(If-None-Match / If-Modified-Since) 처리용 버전 정보
+@Getter
+public class DiaryVersionTag {
+    private final long revision;
+    private final LocalDateTime lastModified; // 해당 기간에 일기가 한 번도 없었으면 null
+
+    public DiaryVersionTag(Long revision, LocalDateTime lastModified) {
+        this.revision = revision == null ? 0 : revision;
+        this.lastModified = lastModified;
+    }
+
+    // 같은 버전이라도 형식(json/cbor/smile)과 압축에 따라 바이트가 달라지므로 약한(weak) ETag
+    // (강한 ETag 가 붙은 응답은 tomcat 이 압축하지 않는다)
+    public String getETag() {
+        return "W/\"" + revision + "\"";
+    }
+
+    // HTTP 헤더용 epoch millis, 없으면 -1
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,15 @@
+package zerobase.weather.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//비동기 저장 큐가 가득 찼을 때 exception 처리 부분 (503으로 응답해서 클라이언트가 잠시 후 다시 보내도록)
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestQueueFull extends RuntimeException {
+    private static final String MESSAGE = "저장 대기중인 일기가 너무 많습니다. 잠시 후 다시 시도해주세요.";
+
+    public IngestQueueFull() {
+        super(MESSAGE);
+    }
+}
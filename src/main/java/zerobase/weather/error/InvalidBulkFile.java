@@ -0,0 +1,14 @@
+package zerobase.weather.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//일괄 가져오기/내보내기 형식이나 파일 머리(header)가 잘못됐을 때 exception 처리 부분
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBulkFile extends RuntimeException {
+
+    public InvalidBulkFile(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package zerobase.weather.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+//지원하지 않는 도시를 요청했을 때 exception 처리 부분
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCity extends RuntimeException {
+    private static final String MESSAGE = "날씨를 제공하지 않는 도시입니다.";
+
+    public InvalidCity() {
+        super(MESSAGE);
+    }
+}
@@ -0,0 +1,45 @@
+package zerobase.weather.error;
+
+import lombok.Getter;
+
+//날씨 api 호출 실패 시 exception 처리 부분
+// 실패 원인(Reason)을 같이 넘겨서 호출하는 쪽에서 재시도/대체 여부를 판단할 수 있게 한다.
+
+@Getter
+public class WeatherApiException extends RuntimeException {
+
+    public enum Reason {
+        TIMEOUT,        // 연결 또는 응답 시간 초과
+        IO_ERROR,       // 연결 실패 등 네트워크 오류
+        HTTP_STATUS,    // 200이 아닌 응답
+        PARSE_ERROR,    // 응답 json 파싱 실패
+        REJECTED,       // 동시 요청 한도 초과
+        RATE_LIMITED    // 호출 한도(quota) 초과
+    }
+
+    private final Reason reason;
+    private final int statusCode;
+
+    public WeatherApiException(Reason reason, String message) {
+        this(reason, message, -1, null);
+    }
+
+    public WeatherApiException(Reason reason, String message, Throwable cause) {
+        this(reason, message, -1, cause);
+    }
+
+    public WeatherApiException(Reason reason, String message, int statusCode, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+        this.statusCode = statusCode;
+    }
+
+    // 잠시 후 다시 부르면 성공할 수 있는 실패인지 (시간 초과, 네트워크 오류, 한도 초과, 429/5xx 응답)
+    public boolean isRetryable() {
+        return switch (reason) {
+            case TIMEOUT, IO_ERROR, REJECTED, RATE_LIMITED -> true;
+            case HTTP_STATUS -> statusCode == 429 || statusCode >= 500;
+            case PARSE_ERROR -> false;
+        };
+    }
+}
@@ -3,14 +3,21 @@ package zerobase.weather.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface DateWeatherRepository extends JpaRepository<DateWeather, LocalDate> {
+public interface DateWeatherRepository extends JpaRepository<DateWeather, DateWeatherId>, DateWeatherUpsert {
 
     List<DateWeather> findAllByDate(LocalDate date);
 
+    Optional<DateWeather> findByDateAndCity(LocalDate date, String city);
+
+    // 날씨 api 를 못 부를 때 대신 쓸 가장 최근 실제 날씨
+    Optional<DateWeather> findFirstByCityAndDegradedFalseOrderByDateDesc(String city);
+
 
 }
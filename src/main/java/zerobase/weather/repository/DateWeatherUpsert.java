@@ -0,0 +1,15 @@
+package zerobase.weather.repository;
+
+import zerobase.weather.domain.DateWeather;
+
+import java.util.List;
+
+// DateWeatherRepository 에 붙는 upsert 기능 (구현: DateWeatherUpsertImpl)
+public interface DateWeatherUpsert {
+
+    // (date, city) 가 이미 있으면 날씨 값을 덮어쓰고, 없으면 새로 넣는다. 여러 건을 jdbc batch 한 번으로 처리
+    void upsertAll(List<DateWeather> dateWeathers);
+
+    // 날씨가 아직 없을 때만 임시(degraded) 날씨를 넣는다. 이미 있으면(실제든 임시든) 그대로 둔다.
+    void insertProvisional(DateWeather dateWeather);
+}
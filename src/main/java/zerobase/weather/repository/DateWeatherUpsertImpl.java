@@ -0,0 +1,48 @@
+package zerobase.weather.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.DateWeather;
+
+import java.sql.Date;
+import java.util.List;
+
+public class DateWeatherUpsertImpl implements DateWeatherUpsert {
+
+    // MySQL (H2 MySQL 모드 포함) upsert 문, 실제 날씨로 덮어쓰면 임시(degraded) 표시도 지운다.
+    private static final String UPSERT_SQL = "insert into date_weather (date, city, weather, icon, temperature, degraded) "
+            + "values (?, ?, ?, ?, ?, false) "
+            + "on duplicate key update weather = values(weather), icon = values(icon), temperature = values(temperature), "
+            + "degraded = false";
+    private static final String INSERT_PROVISIONAL_SQL =
+            "insert into date_weather (date, city, weather, icon, temperature, degraded) values (?, ?, ?, ?, ?, true) "
+                    + "on duplicate key update date_weather.date = date_weather.date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DateWeatherUpsertImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(List<DateWeather> dateWeathers) {
+        if (dateWeathers.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, dateWeathers, dateWeathers.size(), (ps, dateWeather) -> {
+            ps.setDate(1, Date.valueOf(dateWeather.getDate()));
+            ps.setString(2, dateWeather.getCity());
+            ps.setString(3, dateWeather.getWeather());
+            ps.setString(4, dateWeather.getIcon());
+            ps.setDouble(5, dateWeather.getTemperature());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void insertProvisional(DateWeather dateWeather) {
+        jdbcTemplate.update(INSERT_PROVISIONAL_SQL, Date.valueOf(dateWeather.getDate()), dateWeather.getCity(),
+                dateWeather.getWeather(), dateWeather.getIcon(), dateWeather.getTemperature());
+    }
+}
@@ -0,0 +1,95 @@
+package zerobase.weather.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.ArchivedDiary;
+import zerobase.weather.dto.DiaryDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+// 보관된(cold) 일기. 조회/수정/삭제는 DiaryRepository 와 같은 모양으로 (user_id, city, date, id) 인덱스를 탄다.
+@Repository
+public interface DiaryArchiveRepository extends JpaRepository<ArchivedDiary, Integer> {
+
+    @EntityGraph(attributePaths = "dateWeather")
+    List<ArchivedDiary> findAllByUserIdAndCityAndDate(String userId, String city, LocalDate date);
+    @EntityGraph(attributePaths = "dateWeather")
+    List<ArchivedDiary> findAllByUserIdAndCityAndDateBetween(String userId, String city,
+                                                             LocalDate startDate, LocalDate endDate);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from ArchivedDiary d where d.userId = :userId and d.city = :city and d.date = :date")
+    int deleteAllByUserIdAndCityAndDate(@Param("userId") String userId, @Param("city") String city,
+                                        @Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from ArchivedDiary d where d.userId = :userId and d.city = :city "
+            + "and d.date between :startDate and :endDate")
+    int deleteAllByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                               @Param("city") String city,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    @Query("select min(d.id) from ArchivedDiary d where d.userId = :userId and d.city = :city and d.date = :date")
+    Integer findFirstIdByUserIdAndCityAndDate(@Param("userId") String userId, @Param("city") String city,
+                                              @Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ArchivedDiary d set d.text = :text where d.id = :id")
+    int updateTextById(@Param("id") int id, @Param("text") String text);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ArchivedDiary d set d.text = :text "
+            + "where d.userId = :userId and d.city = :city and d.date = :date")
+    int updateTextByUserIdAndCityAndDate(@Param("userId") String userId, @Param("city") String city,
+                                         @Param("date") LocalDate date, @Param("text") String text);
+
+    @Query("select new zerobase.weather.dto.DiaryDto(d.id, d.date, d.city, d.text, w.weather, w.icon, w.temperature) "
+            + "from ArchivedDiary d left join d.dateWeather w "
+            + "where d.userId = :userId and d.city = :city and d.date between :startDate and :endDate "
+            + "and (d.date > :afterDate or (d.date = :afterDate and d.id > :afterId)) "
+            + "order by d.date, d.id")
+    List<DiaryDto> findPageByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                                         @Param("city") String city,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterId") int afterId,
+                                                         Pageable pageable);
+
+    // 커서로 조금씩 읽는다. 트랜잭션 안에서 사용하고 다 쓰면 close 해야 한다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new zerobase.weather.dto.DiaryDto(d.id, d.date, d.city, d.text, w.weather, w.icon, w.temperature) "
+            + "from ArchivedDiary d left join d.dateWeather w "
+            + "where d.userId = :userId and d.city = :city and d.date between :startDate and :endDate "
+            + "order by d.date, d.id")
+    Stream<DiaryDto> streamAllByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                                            @Param("city") String city,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
+
+    // diary 의 일기를 그대로 복사한다. 같은 트랜잭션에서 diary 쪽을 지워서 옮긴다.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into diary_archive (id, user_id, date, city, text) "
+            + "select id, user_id, date, city, text from diary where id in (:ids)", nativeQuery = true)
+    int copyFromDiary(@Param("ids") List<Integer> ids);
+}
@@ -0,0 +1,33 @@
+package zerobase.weather.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.Diary;
+
+// Diary 엔티티와 같은 id 생성기(@TableGenerator)에서 insert 전에 id를 미리 받아온다.
+// write-behind 저장처럼 jpa 를 거치지 않고 jdbc 로 넣는 경우에도 id가 겹치지 않게
+// 운영 DB 의 id_sequence 테이블과 시작값은 db/mysql/id-sequence.sql 로 만든다.
+@Component
+public class DiaryIdGenerator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator identifierGenerator;
+
+    public DiaryIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.identifierGenerator = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Diary.class)
+                .getIdentifierGenerator();
+    }
+
+    public int nextId() {
+        // pooled-lo 라서 50번에 한 번만 id_sequence 테이블에 접근하고 나머지는 메모리에서 꺼낸다.
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return ((Number) identifierGenerator.generate((SharedSessionContractImplementor) session, null)).intValue();
+        }
+    }
+}
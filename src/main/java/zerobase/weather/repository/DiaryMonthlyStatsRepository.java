@@ -0,0 +1,89 @@
+package zerobase.weather.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.DiaryMonthlyStats;
+import zerobase.weather.domain.DiaryMonthlyStatsId;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DiaryMonthlyStatsRepository extends JpaRepository<DiaryMonthlyStats, DiaryMonthlyStatsId> {
+
+    List<DiaryMonthlyStats> findAllByUserIdAndCityAndMonthStartBetweenOrderByMonthStart(String userId,
+                                                                                        String city,
+                                                                                        LocalDate startMonth,
+                                                                                        LocalDate endMonth);
+
+    // 일기 수/온도 합을 더한다(지울 때는 음수). 행이 없으면 새로 만든다.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into diary_monthly_stats "
+            + "(user_id, city, month_start, weather, diary_count, temperature_sum, temperature_count) "
+            + "values (:userId, :city, :monthStart, :weather, :diaryCount, :temperatureSum, :temperatureCount) "
+            + "on duplicate key update diary_count = diary_count + values(diary_count), "
+            + "temperature_sum = temperature_sum + values(temperature_sum), "
+            + "temperature_count = temperature_count + values(temperature_count)", nativeQuery = true)
+    int add(@Param("userId") String userId,
+            @Param("city") String city,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("weather") String weather,
+            @Param("diaryCount") long diaryCount,
+            @Param("temperatureSum") double temperatureSum,
+            @Param("temperatureCount") long temperatureCount);
+
+    // 날씨가 바뀐 경우처럼 도시 전체(모든 사용자)의 한 달을 다시 집계할 때
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from DiaryMonthlyStats s where s.city = :city and s.monthStart = :monthStart")
+    int deleteMonth(@Param("city") String city, @Param("monthStart") LocalDate monthStart);
+
+    // 한 달치 일기(보관된 일기 포함)를 사용자별로 다시 집계한다. deleteMonth 다음에 같은 트랜잭션에서 호출
+    // 사용자 조건이 없으므로 (city, date, id) 인덱스로 그 도시의 한 달치만 읽는다.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into diary_monthly_stats "
+            + "(user_id, city, month_start, weather, diary_count, temperature_sum, temperature_count) "
+            + "select d.user_id, d.city, :monthStart, coalesce(w.weather, 'Unknown'), count(*), "
+            + "coalesce(sum(w.temperature), 0), count(w.temperature) "
+            + "from (select user_id, city, date from diary "
+            + "where city = :city and date between :monthStart and :monthEnd "
+            + "union all select user_id, city, date from diary_archive "
+            + "where city = :city and date between :monthStart and :monthEnd) d "
+            + "left join date_weather w on w.date = d.date and w.city = d.city "
+            + "group by d.user_id, d.city, coalesce(w.weather, 'Unknown')", nativeQuery = true)
+    int insertMonthFromDiaries(@Param("city") String city,
+                               @Param("monthStart") LocalDate monthStart,
+                               @Param("monthEnd") LocalDate monthEnd);
+
+    // 한 사용자의 기간 삭제처럼 그 사용자 행만 다시 집계할 때
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from DiaryMonthlyStats s where s.userId = :userId and s.city = :city "
+            + "and s.monthStart = :monthStart")
+    int deleteUserMonth(@Param("userId") String userId, @Param("city") String city,
+                        @Param("monthStart") LocalDate monthStart);
+
+    // (user_id, city, date, id) 인덱스로 한 사용자의 한 달치 일기(보관된 일기 포함)만 읽어서 다시 집계한다.
+    @Transactional
+    @Modifying
+    @Query(value = "insert into diary_monthly_stats "
+            + "(user_id, city, month_start, weather, diary_count, temperature_sum, temperature_count) "
+            + "select d.user_id, d.city, :monthStart, coalesce(w.weather, 'Unknown'), count(*), "
+            + "coalesce(sum(w.temperature), 0), count(w.temperature) "
+            + "from (select user_id, city, date from diary "
+            + "where user_id = :userId and city = :city and date between :monthStart and :monthEnd "
+            + "union all select user_id, city, date from diary_archive "
+            + "where user_id = :userId and city = :city and date between :monthStart and :monthEnd) d "
+            + "left join date_weather w on w.date = d.date and w.city = d.city "
+            + "group by d.user_id, d.city, coalesce(w.weather, 'Unknown')", nativeQuery = true)
+    int insertUserMonthFromDiaries(@Param("userId") String userId,
+                                   @Param("city") String city,
+                                   @Param("monthStart") LocalDate monthStart,
+                                   @Param("monthEnd") LocalDate monthEnd);
+}
@@ -1,24 +1,101 @@
 package zerobase.weather.repository;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 //
 @Repository
 //DB와 맞닿아있는 기능
-public interface DiaryRepository extends JpaRepository<Diary, Integer> {
-    List<Diary> findAllByDate(LocalDate date);
-    List<Diary> findAllByDateBetween(LocalDate startDate, LocalDate endDate);
-    Diary getFirstByDate(LocalDate date);
+public interface DiaryRepository extends JpaRepository<Diary, Integer>, DiarySearch {
+    // 모든 조회/수정/삭제는 요청한 사용자(userId)의 일기로 한정하고 (user_id, city, date, id) 인덱스를 탄다.
+    // 응답에 날씨가 같이 나가므로 date_weather 를 한 번에 join 해서 가져온다(일기마다 날씨 select 하지 않게)
+    @EntityGraph(attributePaths = "dateWeather")
+    List<Diary> findAllByUserIdAndCityAndDate(String userId, String city, LocalDate date);
+    @EntityGraph(attributePaths = "dateWeather")
+    List<Diary> findAllByUserIdAndCityAndDateBetween(String userId, String city, LocalDate startDate, LocalDate endDate);
+    Diary getFirstByUserIdAndCityAndDate(String userId, String city, LocalDate date);
+
+    // 파생 delete(deleteAllByDate) 는 엔티티를 전부 select 한 뒤 한 건씩 delete 해서
+    // 아래 수정/삭제는 모두 delete/update 문 하나로 처리하고 바뀐 행 수를 돌려준다.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Diary d where d.userId = :userId and d.city = :city and d.date = :date")
+    int deleteAllByUserIdAndCityAndDate(@Param("userId") String userId, @Param("city") String city,
+                                        @Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Diary d where d.userId = :userId and d.city = :city "
+            + "and d.date between :startDate and :endDate")
+    int deleteAllByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                               @Param("city") String city,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // (user_id, city, date, id) 인덱스만 읽고 끝나는 조회
+    @Query("select min(d.id) from Diary d where d.userId = :userId and d.city = :city and d.date = :date")
+    Integer findFirstIdByUserIdAndCityAndDate(@Param("userId") String userId, @Param("city") String city,
+                                              @Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Diary d set d.text = :text where d.id = :id")
+    int updateTextById(@Param("id") int id, @Param("text") String text);
 
     @Transactional
-    void deleteAllByDate(LocalDate date);
+    @Modifying(clearAutomatically = true)
+    @Query("update Diary d set d.text = :text where d.userId = :userId and d.city = :city and d.date = :date")
+    int updateTextByUserIdAndCityAndDate(@Param("userId") String userId, @Param("city") String city,
+                                         @Param("date") LocalDate date, @Param("text") String text);
+
+    // (date, id) keyset 페이지 조회. offset 없이 마지막으로 본 (afterDate, afterId) 다음부터 읽는다.
+    @Query("select new zerobase.weather.dto.DiaryDto(d.id, d.date, d.city, d.text, w.weather, w.icon, w.temperature) "
+            + "from Diary d left join d.dateWeather w "
+            + "where d.userId = :userId and d.city = :city and d.date between :startDate and :endDate "
+            + "and (d.date > :afterDate or (d.date = :afterDate and d.id > :afterId)) "
+            + "order by d.date, d.id")
+    List<DiaryDto> findPageByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                                         @Param("city") String city,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterId") int afterId,
+                                                         Pageable pageable);
+
+    // 기간 전체를 커서로 조금씩(fetch size 만큼) 읽는다. 트랜잭션 안에서 사용하고 다 쓰면 close 해야 한다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new zerobase.weather.dto.DiaryDto(d.id, d.date, d.city, d.text, w.weather, w.icon, w.temperature) "
+            + "from Diary d left join d.dateWeather w "
+            + "where d.userId = :userId and d.city = :city and d.date between :startDate and :endDate "
+            + "order by d.date, d.id")
+    Stream<DiaryDto> streamAllByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                                            @Param("city") String city,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate);
+
+    // 보관(DiaryArchiveService)으로 옮길 일기 id 를 limit 개씩
+    // 필요한 컬럼이 모두 (city, date, id) 인덱스에 있어서, 도시 수만큼 나눠 date 범위만 읽는다(MySQL skip scan).
+    @Query(value = "select id from diary where date < :before limit :limit", nativeQuery = true)
+    List<Integer> findIdsBefore(@Param("before") LocalDate before, @Param("limit") int limit);
 
     /*
     transaction이란?
@@ -0,0 +1,15 @@
+package zerobase.weather.repository;
+
+import zerobase.weather.dto.DiarySearchHit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// DiaryRepository 에 붙는 일기 내용 검색 기능 (구현: DiarySearchImpl)
+public interface DiarySearch {
+
+    // userId 의 일기 중 terms 를 모두 포함하는 일기를 관련도 높은 순으로 offset 부터 limit 건 가져온다.
+    // startDate, endDate, weather 는 null 이면 조건에서 뺀다. includeArchived 면 diary_archive 의 일기도 찾는다.
+    List<DiarySearchHit> search(String userId, String city, List<String> terms, LocalDate startDate, LocalDate endDate,
+                                String weather, boolean includeArchived, int offset, int limit);
+}
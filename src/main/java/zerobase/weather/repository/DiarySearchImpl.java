@@ -0,0 +1,113 @@
+package zerobase.weather.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import zerobase.weather.dto.DiarySearchHit;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// diary.search.mode
+// - fulltext: MySQL FULLTEXT(ngram) 인덱스(db/mysql/diary-fulltext.sql)로 찾고 match 점수로 정렬한다.
+//   인덱스는 DB가 insert/update/delete 와 같은 트랜잭션에서 갱신하므로 따로 동기화할 것이 없다(write-behind batch insert 포함).
+// - like: 인덱스 없이 like 로 찾고 검색어가 나온 횟수로 정렬 (H2 테스트용, 전체 scan)
+// 보관된 일기도 찾아야 하면 diary_archive 에서도 같은 조건으로 찾아서(각자 자기 FULLTEXT 인덱스) 합친 뒤 정렬한다.
+public class DiarySearchImpl implements DiarySearch {
+
+    private static final String SELECT = "select d.id, d.date, d.city, d.text, w.weather, w.icon, w.temperature, ";
+    private static final String JOIN = " d left join date_weather w on w.date = d.date and w.city = d.city"
+            + " where d.user_id = ? and d.city = ?";
+
+    private static final RowMapper<DiarySearchHit> HIT_MAPPER = (rs, rowNum) -> new DiarySearchHit(
+            rs.getInt("id"),
+            rs.getDate("date").toLocalDate(),
+            rs.getString("city"),
+            rs.getString("text"),
+            rs.getString("weather"),
+            rs.getString("icon"),
+            rs.getObject("temperature") == null ? null : rs.getDouble("temperature"),
+            rs.getDouble("score"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean fulltext;
+
+    public DiarySearchImpl(JdbcTemplate jdbcTemplate, @Value("${diary.search.mode:fulltext}") String mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fulltext = !"like".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public List<DiarySearchHit> search(String userId, String city, List<String> terms, LocalDate startDate, LocalDate endDate,
+                                       String weather, boolean includeArchived, int offset, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select * from (");
+        appendMatches(sql, args, "diary", userId, city, terms, startDate, endDate, weather);
+        if (includeArchived) {
+            sql.append(" union all ");
+            appendMatches(sql, args, "diary_archive", userId, city, terms, startDate, endDate, weather);
+        }
+        sql.append(") hits");
+        // 점수가 같으면 최근 일기 먼저
+        sql.append(" order by hits.score desc, hits.date desc, hits.id desc limit ? offset ?");
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(sql.toString(), HIT_MAPPER, args.toArray());
+    }
+
+    private void appendMatches(StringBuilder sql, List<Object> args, String table, String userId, String city,
+                               List<String> terms, LocalDate startDate, LocalDate endDate, String weather) {
+        sql.append(SELECT);
+        if (fulltext) {
+            // boolean mode 에서 단어마다 +"단어" (반드시 포함, ngram 이면 이어진 부분 문자열로 찾는다)
+            String against = fulltextQuery(terms);
+            sql.append("match(d.text) against (? in boolean mode) as score from ").append(table).append(JOIN)
+                    .append(" and match(d.text) against (? in boolean mode)");
+            args.add(against);
+            args.add(userId);
+            args.add(city);
+            args.add(against);
+        } else {
+            // 단어가 나온 횟수 합 = (길이 - 단어를 지운 길이) / 단어 길이
+            StringBuilder score = new StringBuilder();
+            for (String term : terms) {
+                score.append(score.isEmpty() ? "" : " + ")
+                        .append("(length(d.text) - length(replace(lower(d.text), ?, ''))) / ").append(term.length());
+                args.add(term);
+            }
+            sql.append("cast(").append(score).append(" as double) as score from ").append(table).append(JOIN);
+            args.add(userId);
+            args.add(city);
+            for (String term : terms) {
+                sql.append(" and lower(d.text) like ?");
+                args.add("%" + escapeLike(term) + "%");
+            }
+        }
+        if (startDate != null) {
+            sql.append(" and d.date >= ?");
+            args.add(Date.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" and d.date <= ?");
+            args.add(Date.valueOf(endDate));
+        }
+        if (weather != null) {
+            sql.append(" and w.weather = ?");
+            args.add(weather);
+        }
+    }
+
+    private static String fulltextQuery(List<String> terms) {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            query.append(query.isEmpty() ? "" : " ").append("+\"").append(term).append('"');
+        }
+        return query.toString();
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
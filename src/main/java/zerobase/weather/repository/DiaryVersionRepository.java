@@ -0,0 +1,57 @@
+package zerobase.weather.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.DiaryVersion;
+import zerobase.weather.domain.DiaryVersionId;
+import zerobase.weather.dto.DiaryVersionTag;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface DiaryVersionRepository extends JpaRepository<DiaryVersion, DiaryVersionId> {
+
+    // 일기를 새로 쓸 때: 버전 행이 없으면 만들고, 있으면 revision + 1
+    @Transactional
+    @Modifying
+    @Query(value = "insert into diary_version (user_id, date, city, revision, modified_at) "
+            + "values (:userId, :date, :city, 1, :now) "
+            + "on duplicate key update revision = revision + 1, modified_at = values(modified_at)", nativeQuery = true)
+    int bump(@Param("userId") String userId, @Param("date") LocalDate date, @Param("city") String city,
+             @Param("now") LocalDateTime now);
+
+    // 수정/삭제: 일기가 있었던 날짜에는 이미 버전 행이 있으므로 update 만 한다.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update DiaryVersion v set v.revision = v.revision + 1, v.modifiedAt = :now "
+            + "where v.userId = :userId and v.city = :city and v.date between :startDate and :endDate")
+    int bumpBetween(@Param("userId") String userId,
+                    @Param("city") String city,
+                    @Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate,
+                    @Param("now") LocalDateTime now);
+
+    // 날씨 갱신: 그 날짜에 일기가 있는 모든 사용자의 응답이 바뀐다.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update DiaryVersion v set v.revision = v.revision + 1, v.modifiedAt = :now "
+            + "where v.city = :city and v.date between :startDate and :endDate")
+    int bumpAllUsersBetween(@Param("city") String city,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate,
+                            @Param("now") LocalDateTime now);
+
+    // revision 합은 기간 안의 어느 날짜가 바뀌어도 커지므로 기간 전체의 버전으로 쓸 수 있다.
+    @Query("select new zerobase.weather.dto.DiaryVersionTag(coalesce(sum(v.revision), 0), max(v.modifiedAt)) "
+            + "from DiaryVersion v where v.userId = :userId and v.city = :city "
+            + "and v.date between :startDate and :endDate")
+    DiaryVersionTag findTagByUserIdAndCityAndDateBetween(@Param("userId") String userId,
+                                                         @Param("city") String city,
+                                                         @Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,35 @@
+package zerobase.weather.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.SchedulerLock;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // 잠금 행이 없으면 만들어 둔다. 이미 있으면 아무것도 바꾸지 않음
+    @Transactional
+    @Modifying
+    @Query(value = "insert into scheduler_lock (name, locked_until, locked_at, locked_by) "
+            + "values (:name, :now, :now, '') on duplicate key update name = name", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("now") LocalDateTime now);
+
+    // 만료된 잠금일 때만 가져간다. update 한 행 수가 1이면 잠금 획득
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update SchedulerLock l set l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :owner "
+            + "where l.name = :name and l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update SchedulerLock l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,107 @@
+package zerobase.weather.service;
+
+import zerobase.weather.error.InvalidBulkFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 csv 를 한 행씩 읽는다. 파일 전체를 메모리에 올리지 않고 버퍼 크기만큼씩 읽는다.
+// 따옴표로 감싼 필드 안의 쉼표, 줄바꿈, "" (따옴표 하나) 를 처리한다.
+public class CsvReader {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordLine;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // 마지막으로 읽은 행이 시작된 줄 번호 (1부터)
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    // 다음 행, 파일 끝이면 null
+    public List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') { // utf-8 BOM
+                position++;
+            }
+        }
+        if (peek() == EOF) {
+            return null;
+        }
+        recordLine = lineNumber;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == EOF) {
+                    throw new InvalidBulkFile("line " + recordLine + ": 따옴표가 닫히지 않았습니다.");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        position++;
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                if (c != EOF) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != EOF) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position];
+    }
+}
@@ -0,0 +1,203 @@
+package zerobase.weather.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.repository.DateWeatherRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// (날짜, 도시)별 날씨 캐시
+// 캐시 -> DB -> API 순서로 날씨를 찾고, API에서 가져온 날씨는 DB에도 저장해둔다.
+// 같은 (날짜, 도시)에 대한 동시 miss는 먼저 들어온 요청 하나만 로딩하고 나머지는 그 결과를 같이 기다린다(single-flight).
+// 기다린 요청은 hit 도 miss 도 아닌 wait 로 센다.
+// 통계는 weather.cache.* 메트릭으로도 내보낸다.
+// 도시마다 가장 최근 날짜의 날씨도 따로 기억해서, api 를 못 부를 때 대신 내줄 수 있게 한다(lastKnown).
+// DB 에 임시(degraded) 날씨가 있으면 그대로 쓰고, 실제 날씨는 수집(WeatherIngestionService)이 덮어쓰면서 put 으로 바꿔 넣는다.
+@Component
+public class DateWeatherCache implements MeterBinder {
+
+    private final DateWeatherRepository dateWeatherRepository;
+    private final AsyncCache<DateWeatherId, DateWeather> cache;
+    private final Map<String, DateWeather> latestByCity = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    public DateWeatherCache(DateWeatherRepository dateWeatherRepository,
+                            @Value("${weather.cache.max-size:4000}") long maxSize,
+                            @Value("${weather.cache.expire-after-write:PT6H}") Duration expireAfterWrite) {
+        this.dateWeatherRepository = dateWeatherRepository;
+        // 로딩 중인 future는 만료/제거 대상이 아니고, 완료된 값만 크기/시간 기준으로 밀려난다.
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .buildAsync();
+    }
+
+    public DateWeather get(LocalDate date, String city, Supplier<DateWeather> apiLoader) {
+        DateWeatherId key = new DateWeatherId(date, city);
+        CompletableFuture<DateWeather> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return joinCounted(cached);
+        }
+
+        CompletableFuture<DateWeather> loading = new CompletableFuture<>();
+        CompletableFuture<DateWeather> existing = cache.asMap().putIfAbsent(key, loading);
+        if (existing != null) {
+            // 다른 요청이 이미 로딩 중 -> 그 결과를 같이 쓴다.
+            return joinCounted(existing);
+        }
+
+        missCount.increment();
+        long start = System.nanoTime();
+        try {
+            DateWeather dateWeather = load(key, apiLoader);
+            remember(dateWeather);
+            loadCount.increment();
+            loading.complete(dateWeather);
+            return dateWeather;
+        } catch (Throwable e) {
+            loadFailureCount.increment();
+            // 실패한 결과는 캐시에 남기지 않는다. Error 여도 기다리는 요청이 멈춰 있지 않도록 같이 실패시킨다.
+            cache.asMap().remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+        }
+    }
+
+    // 캐시 -> DB 에서만 찾고 api 는 부르지 않는다. 없으면 empty 이고, 없다는 결과는 캐시하지 않는다.
+    // (api 는 오늘 날씨만 주므로, 지난 날짜를 api 로 채우면 오늘 날씨가 그 날짜에 저장된다)
+    public Optional<DateWeather> find(LocalDate date, String city) {
+        DateWeatherId key = new DateWeatherId(date, city);
+        CompletableFuture<DateWeather> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(joinCounted(cached));
+        }
+
+        missCount.increment();
+        Optional<DateWeather> stored = dateWeatherRepository.findById(key);
+        stored.ifPresent(dateWeather -> {
+            cache.asMap().putIfAbsent(key, CompletableFuture.completedFuture(dateWeather));
+            remember(dateWeather);
+        });
+        return stored;
+    }
+
+    // 스케줄러 등에서 새로 저장한 날씨로 캐시를 갱신할 때 사용
+    public void put(DateWeather dateWeather) {
+        cache.put(new DateWeatherId(dateWeather.getDate(), dateWeather.getCity()),
+                CompletableFuture.completedFuture(dateWeather));
+        remember(dateWeather);
+    }
+
+    // 해당 도시의 가장 최근 날짜 날씨 (메모리 -> DB), 한 번도 없었으면 empty
+    public Optional<DateWeather> lastKnown(String city) {
+        DateWeather latest = latestByCity.get(city);
+        if (latest != null) {
+            return Optional.of(latest);
+        }
+        Optional<DateWeather> stored = dateWeatherRepository.findFirstByCityAndDegradedFalseOrderByDateDesc(city);
+        stored.ifPresent(this::remember);
+        return stored;
+    }
+
+    // 임시(degraded) 날씨는 대신 쓴 날씨라서 마지막 날씨로 기억하지 않는다.
+    private void remember(DateWeather dateWeather) {
+        if (dateWeather.isDegraded()) {
+            return;
+        }
+        latestByCity.merge(dateWeather.getCity(), dateWeather,
+                (current, candidate) -> candidate.getDate().isBefore(current.getDate()) ? current : candidate);
+    }
+
+    public void evict(LocalDate date, String city) {
+        cache.synchronous().invalidate(new DateWeatherId(date, city));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("weather.cache.requests", hitCount, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("weather.cache.requests", missCount, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("weather.cache.requests", waitCount, LongAdder::sum)
+                .tag("result", "wait").register(registry);
+        FunctionCounter.builder("weather.cache.loads", loadCount, LongAdder::sum)
+                .tag("result", "success").register(registry);
+        FunctionCounter.builder("weather.cache.loads", loadFailureCount, LongAdder::sum)
+                .tag("result", "failure").register(registry);
+        Gauge.builder("weather.cache.hit.ratio", this, cache -> cache.stats().getHitRate())
+                .register(registry);
+        Gauge.builder("weather.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .register(registry);
+    }
+
+    public WeatherCacheStats stats() {
+        return new WeatherCacheStats(
+                hitCount.sum(),
+                missCount.sum(),
+                waitCount.sum(),
+                loadCount.sum(),
+                loadFailureCount.sum(),
+                totalLoadTime.sum(),
+                cache.synchronous().estimatedSize());
+    }
+
+    private DateWeather load(DateWeatherId key, Supplier<DateWeather> apiLoader) {
+        return dateWeatherRepository.findById(key).orElseGet(() -> {
+            // DB에도 없으면 API에서 가져오고, 다음 요청을 위해 해당 날짜, 도시로 저장해둔다.
+            DateWeather fetched = apiLoader.get();
+            fetched.setDate(key.getDate());
+            fetched.setCity(key.getCity());
+            dateWeatherRepository.upsertAll(List.of(fetched));
+            return fetched;
+        });
+    }
+
+    // 이미 있는 값이면 hit, 다른 요청이 로딩 중이면 wait (로딩을 새로 하지 않았지만 캐시에서 바로 꺼낸 것도 아니다)
+    private DateWeather joinCounted(CompletableFuture<DateWeather> future) {
+        if (future.isDone()) {
+            hitCount.increment();
+        } else {
+            waitCount.increment();
+        }
+        return join(future);
+    }
+
+    private static DateWeather join(CompletableFuture<DateWeather> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
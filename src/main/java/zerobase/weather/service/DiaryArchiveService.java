@@ -0,0 +1,105 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zerobase.weather.repository.DiaryArchiveRepository;
+import zerobase.weather.repository.DiaryRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+// 오래된 일기를 diary(hot)에서 diary_archive(cold, 압축 테이블)로 옮긴다.
+// - 기준일(cutoff)은 diary.archive.after 전 날짜가 속한 달의 1일. 그보다 오래된 일기를 batch-size 개씩 옮긴다.
+// - 조회는 기간이 기준일 이전을 포함할 때만 diary_archive 도 같이 읽는다(DiaryService).
+//   기준일 이전 일기는 옮겨지기 전이면 diary 에, 옮겨졌으면 diary_archive 에 있다.
+// - diary 는 파티션하지 않는다. MySQL 은 FULLTEXT 인덱스(검색)가 있는 테이블을 파티션할 수 없고,
+//   오래된 일기를 옮기는 것만으로 diary 인덱스는 최근 일기 크기로 유지된다.
+// diary.archive.after 를 늘리면 이미 옮긴 일기가 조회에서 빠지므로, 늘리기 전에 diary 로 되돌려야 한다.
+@Service
+public class DiaryArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiaryArchiveService.class);
+    static final String LOCK_NAME = "diary-archive";
+
+    private final DiaryRepository diaryRepository;
+    private final DiaryArchiveRepository diaryArchiveRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Period after;
+    private final int batchSize;
+    private final Duration lockAtMostFor;
+    private final Counter archivedCount;
+
+    public DiaryArchiveService(DiaryRepository diaryRepository, DiaryArchiveRepository diaryArchiveRepository,
+                               SchedulerLockService schedulerLockService,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                               @Value("${diary.archive.enabled:true}") boolean enabled,
+                               @Value("${diary.archive.after:P12M}") Period after,
+                               @Value("${diary.archive.batch-size:1000}") int batchSize,
+                               @Value("${diary.archive.lock-at-most-for:PT2H}") Duration lockAtMostFor) {
+        this.diaryRepository = diaryRepository;
+        this.diaryArchiveRepository = diaryArchiveRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.after = after;
+        this.batchSize = Math.max(1, batchSize);
+        this.lockAtMostFor = lockAtMostFor;
+        this.archivedCount = Counter.builder("diary.archive.moved")
+                .description("diaries moved from the hot table to the archive")
+                .register(meterRegistry);
+    }
+
+    // 이 날짜보다 오래된 일기는 diary_archive 에 있을 수 있다.
+    public LocalDate cutoff() {
+        return LocalDate.now().minus(after).withDayOfMonth(1);
+    }
+
+    public boolean mayBeArchived(LocalDate startDate) {
+        return startDate.isBefore(cutoff());
+    }
+
+    // 매일 기준일 이전 일기를 옮긴다. (여러 서버 중 한 곳에서만)
+    @Scheduled(cron = "${diary.archive.cron:0 0 3 * * *}")
+    public void archiveScheduled() {
+        if (!enabled) {
+            return;
+        }
+        schedulerLockService.runLocked(LOCK_NAME, lockAtMostFor, () -> archive(cutoff()));
+    }
+
+    // before 이전 일기를 batch-size 개씩 트랜잭션 하나에서 복사 + 삭제로 옮긴다. 옮긴 일기 수를 돌려준다.
+    // 일기 내용은 그대로라 버전(ETag)과 월 통계는 바꾸지 않는다.
+    public long archive(LocalDate before) {
+        long start = System.nanoTime();
+        long moved = 0;
+        while (true) {
+            int batch = transactionTemplate.execute(status -> {
+                List<Integer> ids = diaryRepository.findIdsBefore(before, batchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                diaryArchiveRepository.copyFromDiary(ids);
+                diaryRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            if (batch == 0) {
+                break;
+            }
+            moved += batch;
+            archivedCount.increment(batch);
+        }
+        logger.info("archived {} diaries older than {} in {} ms", moved, before, (System.nanoTime() - start) / 1_000_000);
+        return moved;
+    }
+}
@@ -0,0 +1,73 @@
+package zerobase.weather.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zerobase.weather.domain.Diary;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// id 가 이미 정해진 일기 여러 건을 트랜잭션 하나에서 jdbc batch insert 로 저장한다.
+// write-behind 큐와 일괄 가져오기(DiaryBulkService)가 같이 쓴다.
+@Component
+public class DiaryBatchWriter {
+
+    private static final String INSERT_SQL =
+            "insert into diary (id, user_id, date, city, text) values (?, ?, ?, ?, ?)";
+    private static final String BUMP_VERSION_SQL =
+            "insert into diary_version (user_id, date, city, revision, modified_at) values (?, ?, ?, 1, ?) "
+                    + "on duplicate key update revision = revision + 1, modified_at = values(modified_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DiaryStatsService diaryStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public DiaryBatchWriter(JdbcTemplate jdbcTemplate, DiaryStatsService diaryStatsService,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.diaryStatsService = diaryStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void insertAll(List<Diary> diaries) {
+        if (diaries.isEmpty()) {
+            return;
+        }
+        // 버전과 통계는 (사용자, 날짜, 도시)마다 한 번만 올린다. 정렬해서 다른 트랜잭션과 같은 순서로 락을 잡게
+        Map<StatsKey, Long> counts = diaries.stream().collect(Collectors.groupingBy(
+                diary -> new StatsKey(diary.getUserId(), diary.getDate(), diary.getCity()),
+                () -> new TreeMap<>(Comparator.comparing(StatsKey::userId)
+                        .thenComparing(StatsKey::date).thenComparing(StatsKey::city)),
+                Collectors.counting()));
+        List<StatsKey> versions = List.copyOf(counts.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, diaries, diaries.size(), (ps, diary) -> {
+                ps.setInt(1, diary.getId());
+                ps.setString(2, diary.getUserId());
+                ps.setDate(3, Date.valueOf(diary.getDate()));
+                ps.setString(4, diary.getCity());
+                ps.setString(5, diary.getText());
+            });
+            jdbcTemplate.batchUpdate(BUMP_VERSION_SQL, versions, versions.size(), (ps, version) -> {
+                ps.setString(1, version.userId());
+                ps.setDate(2, Date.valueOf(version.date()));
+                ps.setString(3, version.city());
+                ps.setTimestamp(4, now);
+            });
+            counts.forEach((key, count) -> diaryStatsService.addDiaries(key.userId(), key.date(), key.city(), count));
+        });
+    }
+
+    private record StatsKey(String userId, LocalDate date, String city) {
+    }
+}
@@ -0,0 +1,323 @@
+package zerobase.weather.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+import zerobase.weather.dto.DiaryImportRecord;
+import zerobase.weather.dto.DiaryImportResult;
+import zerobase.weather.error.InvalidBulkFile;
+import zerobase.weather.error.InvalidCity;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.repository.DiaryIdGenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// 일기 일괄 가져오기/내보내기 (csv, ndjson)
+// 가져오기: 요청 body 를 한 행씩 읽어서 diary.bulk.chunk-size 건마다 jdbc batch insert + 커밋한다.
+//   날씨는 (날짜, 도시)마다 한 번만 구하고, 못 구하면 날씨 없이 저장한다.
+//   api 는 오늘 날씨만 주므로 지난 날짜는 캐시 -> DB 에서만 찾고, 오늘 날짜만 일기 작성처럼 api 까지 부른다.
+//   메모리에는 청크 하나와 이미 날씨를 구한 (날짜, 도시) 목록만 남는다.
+// 내보내기: DB 커서로 읽으면서 바로 쓴다.
+@Timed("diary.bulk")
+@Service
+public class DiaryBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiaryBulkService.class);
+    private static final int MAX_REPORTED_ERRORS = 10;
+    private static final String CSV_HEADER = "id,date,city,text,weather,icon,temperature";
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String format) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidBulkFile("지원하지 않는 형식입니다: " + format + " (csv, ndjson)");
+            }
+        }
+    }
+
+    private final DiaryService diaryService;
+    private final DiaryBatchWriter diaryBatchWriter;
+    private final DiaryIdGenerator diaryIdGenerator;
+    private final DateWeatherCache dateWeatherCache;
+    private final WeatherClient weatherClient;
+    private final WeatherCities weatherCities;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public DiaryBulkService(DiaryService diaryService, DiaryBatchWriter diaryBatchWriter,
+                            DiaryIdGenerator diaryIdGenerator, DateWeatherCache dateWeatherCache,
+                            WeatherClient weatherClient, WeatherCities weatherCities, ObjectMapper objectMapper,
+                            @Value("${diary.bulk.chunk-size:1000}") int chunkSize) {
+        this.diaryService = diaryService;
+        this.diaryBatchWriter = diaryBatchWriter;
+        this.diaryIdGenerator = diaryIdGenerator;
+        this.dateWeatherCache = dateWeatherCache;
+        this.weatherClient = weatherClient;
+        this.weatherCities = weatherCities;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // userId 의 일기로 저장한다. 잘못된 행은 건너뛰고 나머지를 저장한다. 이미 커밋된 청크는 중간에 실패해도 남는다.
+    public DiaryImportResult importDiaries(String userId, InputStream in, Format format) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(userId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double perSecond = run.imported / Math.max(elapsedNanos / 1e9, 1e-9);
+        logger.info("imported {} diaries ({} skipped) in {} ms, {} diaries/s",
+                run.imported, run.skipped, elapsedNanos / 1_000_000, String.format("%.0f", perSecond));
+        return new DiaryImportResult(run.imported, run.skipped, run.withoutWeather, run.errors,
+                elapsedNanos / 1_000_000, perSecond);
+    }
+
+    // 내보낸 일기 수를 돌려준다. csv 는 가져오기에 그대로 다시 넣을 수 있다.
+    public long exportDiaries(String userId, LocalDate startDate, LocalDate endDate, String city, Format format,
+                              OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long[] count = new long[1];
+        if (format == Format.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            diaryService.streamDiaries(userId, startDate, endDate, city, diary -> {
+                try {
+                    writeCsvRow(writer, diary);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } else {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            // ndjson: 최상위 값 사이 구분자를 줄바꿈으로
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            diaryService.streamDiaries(userId, startDate, endDate, city, diary -> {
+                try {
+                    generator.writeObject(diary);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (count[0] > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        logger.info("exported {} diaries in {} ms, {} diaries/s", count[0], elapsedNanos / 1_000_000,
+                String.format("%.0f", count[0] / Math.max(elapsedNanos / 1e9, 1e-9)));
+        return count[0];
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        int dateColumn = columns.indexOf("date");
+        int cityColumn = columns.indexOf("city");
+        int textColumn = columns.indexOf("text");
+        if (dateColumn < 0 || textColumn < 0) {
+            throw new InvalidBulkFile("csv 첫 행에 date, text 컬럼이 있어야 합니다.");
+        }
+
+        List<String> row;
+        while ((row = csv.next()) != null) {
+            if (row.size() == 1 && row.get(0).isEmpty()) {
+                continue; // 빈 줄
+            }
+            if (row.size() <= Math.max(dateColumn, textColumn)) {
+                run.skip(csv.getLineNumber(), "컬럼 수가 모자랍니다.");
+                continue;
+            }
+            try {
+                run.add(csv.getLineNumber(), LocalDate.parse(row.get(dateColumn).trim()),
+                        cityColumn < 0 || cityColumn >= row.size() ? null : row.get(cityColumn),
+                        row.get(textColumn));
+            } catch (DateTimeParseException e) {
+                run.skip(csv.getLineNumber(), "날짜 형식이 잘못됐습니다: " + row.get(dateColumn));
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        ObjectReader recordReader = objectMapper.readerFor(DiaryImportRecord.class);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            DiaryImportRecord record;
+            try {
+                record = recordReader.readValue(line);
+            } catch (IOException e) {
+                run.skip(lineNumber, "json 형식이 잘못됐습니다.");
+                continue;
+            }
+            run.add(lineNumber, record.getDate(), record.getCity(), record.getText());
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, DiaryDto diary) throws IOException {
+        writer.write(Integer.toString(diary.getId()));
+        writer.write(',');
+        writer.write(diary.getDate().toString());
+        writer.write(',');
+        writeCsvField(writer, diary.getCity());
+        writer.write(',');
+        writeCsvField(writer, diary.getText());
+        writer.write(',');
+        writeCsvField(writer, diary.getWeather());
+        writer.write(',');
+        writeCsvField(writer, diary.getIcon());
+        writer.write(',');
+        if (diary.getTemperature() != null) {
+            writer.write(diary.getTemperature().toString());
+        }
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // 가져오기 한 번의 상태 (청크, 날씨를 구한 키, 결과 집계)
+    private class ImportRun {
+        private final String userId;
+        private final List<Diary> chunk = new ArrayList<>(chunkSize);
+        private final Set<DateWeatherId> resolvedWeather = new HashSet<>();
+        private final Set<DateWeatherId> missingWeather = new HashSet<>();
+        private final List<String> errors = new ArrayList<>();
+        private long imported;
+        private long skipped;
+        private long withoutWeather;
+
+        ImportRun(String userId) {
+            this.userId = userId;
+        }
+
+        void add(long lineNumber, LocalDate date, String city, String text) {
+            if (date == null || text == null) {
+                skip(lineNumber, "date, text 가 필요합니다.");
+                return;
+            }
+            String resolvedCity;
+            try {
+                resolvedCity = weatherCities.resolve(city);
+            } catch (InvalidCity e) {
+                skip(lineNumber, "날씨를 제공하지 않는 도시입니다: " + city);
+                return;
+            }
+            if (!resolveWeather(date, resolvedCity)) {
+                withoutWeather++;
+            }
+
+            Diary diary = new Diary();
+            diary.setId(diaryIdGenerator.nextId());
+            diary.setUserId(userId);
+            diary.setDate(date);
+            diary.setCity(resolvedCity);
+            diary.setText(text);
+            chunk.add(diary);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void skip(long lineNumber, String reason) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            diaryBatchWriter.insertAll(chunk);
+            imported += chunk.size();
+            chunk.clear();
+        }
+
+        // (날짜, 도시)마다 처음 한 번만 날씨를 구한다. api 가 실패해도 가져오기는 계속한다.
+        private boolean resolveWeather(LocalDate date, String city) {
+            DateWeatherId key = new DateWeatherId(date, city);
+            if (resolvedWeather.contains(key)) {
+                return true;
+            }
+            if (missingWeather.contains(key)) {
+                return false;
+            }
+            try {
+                if (date.equals(LocalDate.now())) {
+                    dateWeatherCache.get(date, city, () -> weatherClient.fetch(city));
+                } else if (dateWeatherCache.find(date, city).isEmpty()) {
+                    missingWeather.add(key);
+                    return false;
+                }
+                resolvedWeather.add(key);
+                return true;
+            } catch (WeatherApiException e) {
+                logger.warn("failed to resolve weather of {} for {} during import: {}", city, date, e.getMessage());
+                missingWeather.add(key);
+                return false;
+            }
+        }
+    }
+}
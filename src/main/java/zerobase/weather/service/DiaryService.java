@@ -2,33 +2,49 @@ package zerobase.weather.service;
 
 
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import zerobase.weather.WeatherApplication;
+import zerobase.weather.domain.ArchivedDiary;
 import zerobase.weather.domain.DateWeather;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiarySearchHit;
+import zerobase.weather.dto.DiarySearchPage;
+import zerobase.weather.dto.DiaryVersionTag;
+import zerobase.weather.error.WeatherApiException;
 import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.DiaryArchiveRepository;
+import zerobase.weather.repository.DiaryIdGenerator;
 import zerobase.weather.repository.DiaryRepository;
+import zerobase.weather.repository.DiaryVersionRepository;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Transactional(readOnly = true) //import 할 때 javax말고 springframework에 있는 거 쓰세여
+@Timed("diary.service") // public 메서드마다 method 태그로 지연시간 기록 (MetricsConfig 의 TimedAspect)
 @Service
 public class DiaryService {
 
@@ -38,24 +54,72 @@ public class DiaryService {
      * 우리 DB에 저장하기
      */
 
-    @Value("${openweathermap.key}")
-    private String apiKey;
     private final DiaryRepository diaryRepository;
+    private final DiaryArchiveRepository diaryArchiveRepository;
+    private final DiaryArchiveService diaryArchiveService;
+    private final DiaryVersionRepository diaryVersionRepository;
+    private final DiaryStatsService diaryStatsService;
+    private final DateWeatherCache dateWeatherCache;
     private final DateWeatherRepository dateWeatherRepository;
+    private final WeatherClient weatherClient;
+    private final WeatherCities weatherCities;
+    private final TransactionTemplate createTransaction;
+    private final DiaryIdGenerator diaryIdGenerator;
+    private final Optional<DiaryWriteBehindQueue> writeBehindQueue;
+    private final boolean degradedWeather;
+    private final Counter degradedCount;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final Comparator<DiaryDto> DIARY_DTO_ORDER =
+            Comparator.comparing(DiaryDto::getDate).thenComparingInt(DiaryDto::getId);
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // 관련도 순은 keyset 으로 넘길 수 없어서 offset 을 쓰는데, 깊은 offset 은 앞의 결과를 다 읽어야 하므로 여기까지만
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    // ngram_token_size(2) 보다 짧은 단어는 FULLTEXT 인덱스로 찾을 수 없어서 뺀다.
+    private static final int MIN_SEARCH_TERM_LENGTH = 2;
     private static final Logger logger = LoggerFactory.getLogger(WeatherApplication.class);
 
-    public DiaryService(DiaryRepository diaryRepository, DateWeatherRepository dateWeatherRepository) {
+    public DiaryService(DiaryRepository diaryRepository, DiaryArchiveRepository diaryArchiveRepository,
+                        DiaryArchiveService diaryArchiveService, DiaryVersionRepository diaryVersionRepository,
+                        DiaryStatsService diaryStatsService,
+                        DateWeatherCache dateWeatherCache, DateWeatherRepository dateWeatherRepository,
+                        WeatherClient weatherClient,
+                        WeatherCities weatherCities,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${diary.create.isolation:READ_COMMITTED}") Isolation createIsolation,
+                        DiaryIdGenerator diaryIdGenerator, Optional<DiaryWriteBehindQueue> writeBehindQueue,
+                        MeterRegistry meterRegistry,
+                        @Value("${weather.degraded.enabled:true}") boolean degradedWeather) {
         this.diaryRepository = diaryRepository;
+        this.diaryArchiveRepository = diaryArchiveRepository;
+        this.diaryArchiveService = diaryArchiveService;
+        this.diaryVersionRepository = diaryVersionRepository;
+        this.diaryStatsService = diaryStatsService;
+        this.dateWeatherCache = dateWeatherCache;
         this.dateWeatherRepository = dateWeatherRepository;
+        this.weatherClient = weatherClient;
+        this.weatherCities = weatherCities;
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.createTransaction.setIsolationLevel(createIsolation.value());
+        this.diaryIdGenerator = diaryIdGenerator;
+        this.writeBehindQueue = writeBehindQueue;
+        this.degradedWeather = degradedWeather;
+        this.degradedCount = Counter.builder("weather.degraded")
+                .description("diaries created with the last known weather because the weather api was unavailable")
+                .register(meterRegistry);
     }
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    public void createDiary(LocalDate date, String text) {
+
+    // 2단계로 나눠서 저장
+    // 1) 트랜잭션 밖에서 날씨를 먼저 구한다(캐시 -> DB -> API). api 응답을 기다리는 동안 DB 커넥션/락을 잡고 있지 않게
+    // 2) 일기 insert 만 하는 짧은 트랜잭션 (격리수준은 diary.create.isolation 으로 설정)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int createDiary(String userId, LocalDate date, String city, String text) {
         logger.info("started to create diary");
         // 날씨 데이터 가져오기(API or DB에서 가져오기)
-        DateWeather dateWeather = getDateWeather(date);
+        DateWeather dateWeather = getDateWeather(date, weatherCities.resolve(city));
 
 //      //파싱된 데이터 + 일기 값 DB에 넣기
         Diary nowDiary = new Diary();
+        nowDiary.setUserId(userId);
         nowDiary.setDateWeather(dateWeather);
         nowDiary.setText(text);
         nowDiary.setDate(date);
@@ -75,125 +139,292 @@ public class DiaryService {
 //        nowDiary.setText(text);
 //        nowDiary.setDate(date);
 
-        diaryRepository.save(nowDiary);
+        int id = createTransaction.execute(status -> {
+            int savedId = diaryRepository.save(nowDiary).getId();
+            diaryVersionRepository.bump(userId, nowDiary.getDate(), nowDiary.getCity(), LocalDateTime.now());
+            diaryStatsService.addDiaries(userId, dateWeather, 1);
+            return savedId;
+        });
         logger.info("end to create diary");
+        return id;
+    }
+
+    public boolean isAsyncIngest() {
+        return writeBehindQueue.isPresent();
+    }
 
+    // 비동기 저장 모드(diary.ingest.mode=async)
+    // 날씨까지 채운 일기에 id를 미리 받아서 큐에 넣고 바로 id를 돌려준다. 실제 insert는 DiaryWriteBehindQueue가 모아서 한다.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int enqueueDiary(String userId, LocalDate date, String city, String text) {
+        DiaryWriteBehindQueue queue = writeBehindQueue
+                .orElseThrow(() -> new IllegalStateException("diary.ingest.mode is not async"));
+        Diary nowDiary = new Diary();
+        nowDiary.setUserId(userId);
+        nowDiary.setDateWeather(getDateWeather(date, weatherCities.resolve(city)));
+        nowDiary.setText(text);
+        nowDiary.setDate(date);
+        nowDiary.setId(diaryIdGenerator.nextId());
+        queue.enqueue(nowDiary);
+        return nowDiary.getId();
     }
     @Transactional(readOnly = true)
-    public List<Diary> readDiary(LocalDate date) {
+    public List<Diary> readDiary(String userId, LocalDate date, String city) {
       //  logger.debug("read diary");
 //        if(date.isAfter(LocalDate.ofYearDay(3050,1))) {
 //            throw new InvalidDate();
 //        }
-       return diaryRepository.findAllByDate(date);
+        String resolvedCity = weatherCities.resolve(city);
+        List<Diary> diaries = diaryRepository.findAllByUserIdAndCityAndDate(userId, resolvedCity, date);
+        if (!diaryArchiveService.mayBeArchived(date)) {
+            return diaries;
+        }
+        return merge(diaries, diaryArchiveRepository.findAllByUserIdAndCityAndDate(userId, resolvedCity, date));
     }
+    // 기간이 보관 기준일(cutoff) 이전을 포함하면 보관된 일기도 읽어서 (date, id) 순서로 합친다.
     @Transactional(readOnly = true)
-    public List<Diary> readDiaries(LocalDate startDate, LocalDate endDate) {
-        return diaryRepository.findAllByDateBetween(startDate, endDate);
+    public List<Diary> readDiaries(String userId, LocalDate startDate, LocalDate endDate, String city) {
+        String resolvedCity = weatherCities.resolve(city);
+        List<Diary> diaries = diaryRepository.findAllByUserIdAndCityAndDateBetween(userId, resolvedCity,
+                startDate, endDate);
+        if (!diaryArchiveService.mayBeArchived(startDate)) {
+            return diaries;
+        }
+        return merge(diaries, diaryArchiveRepository.findAllByUserIdAndCityAndDateBetween(userId, resolvedCity,
+                startDate, endDate));
     }
 
-    public void updateDiary(LocalDate date, String text) {
-        Diary nowDiary = diaryRepository.getFirstByDate(date);
-        nowDiary.setText(text);
-        diaryRepository.save(nowDiary);
+    private static List<Diary> merge(List<Diary> diaries, List<ArchivedDiary> archived) {
+        if (archived.isEmpty()) {
+            return diaries;
+        }
+        List<Diary> merged = new ArrayList<>(diaries.size() + archived.size());
+        merged.addAll(diaries);
+        archived.forEach(diary -> merged.add(diary.toDiary()));
+        merged.sort(Comparator.comparing(Diary::getDate).thenComparingInt(Diary::getId));
+        return merged;
     }
 
-    public void deleteDiary(LocalDate date) {
-        diaryRepository.deleteAllByDate(date);
+    // 기간 조회를 (date, id) 순서의 페이지로 나눠서 가져오기. 처음 요청은 afterDate, afterId 없이
+    @Transactional(readOnly = true)
+    public DiaryPage readDiaryPage(String userId, LocalDate startDate, LocalDate endDate, String city,
+                                   LocalDate afterDate, Integer afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate fromDate = afterDate == null ? startDate.minusDays(1) : afterDate;
+        int fromId = afterId == null ? Integer.MIN_VALUE : afterId;
+
+        // 한 개 더 읽어서 다음 페이지가 있는지 확인
+        String resolvedCity = weatherCities.resolve(city);
+        List<DiaryDto> diaries = diaryRepository.findPageByUserIdAndCityAndDateBetween(
+                userId, resolvedCity, startDate, endDate, fromDate, fromId, PageRequest.of(0, pageSize + 1));
+        if (diaryArchiveService.mayBeArchived(fromDate)) {
+            // 양쪽에서 한 페이지씩 읽어서 합친 뒤 앞에서부터 자른다.
+            List<DiaryDto> archived = diaryArchiveRepository.findPageByUserIdAndCityAndDateBetween(
+                    userId, resolvedCity, startDate, endDate, fromDate, fromId, PageRequest.of(0, pageSize + 1));
+            if (!archived.isEmpty()) {
+                List<DiaryDto> merged = new ArrayList<>(diaries.size() + archived.size());
+                merged.addAll(diaries);
+                merged.addAll(archived);
+                merged.sort(DIARY_DTO_ORDER);
+                diaries = merged.subList(0, Math.min(merged.size(), pageSize + 1));
+            }
+        }
+        if (diaries.size() <= pageSize) {
+            return new DiaryPage(diaries, null, null);
+        }
+        List<DiaryDto> page = diaries.subList(0, pageSize);
+        DiaryDto last = page.get(pageSize - 1);
+        return new DiaryPage(page, last.getDate(), last.getId());
     }
 
-    @Transactional
-    @Scheduled(cron = "0 0 1 * * *") // 초 분 시 매일 매월 // 0/5슬래스의 이미: per 5sec
-    public void saveWeatherDate(){
-        logger.info("오늘도 날씨 데이터 잘 가져옴");
-        dateWeatherRepository.save(getWeatherFromApi());
+    // 기간 내 일기를 하나씩 consumer 로 넘긴다. 전체를 List 로 모으지 않아서 기간이 길어도 메모리 사용량이 일정하다.
+    // 보관된 일기가 있을 수 있는 기간이면 두 커서를 (date, id) 순서로 번갈아 읽는다.
+    @Transactional(readOnly = true)
+    public void streamDiaries(String userId, LocalDate startDate, LocalDate endDate, String city,
+                              Consumer<DiaryDto> consumer) {
+        String resolvedCity = weatherCities.resolve(city);
+        try (Stream<DiaryDto> diaries = diaryRepository.streamAllByUserIdAndCityAndDateBetween(
+                userId, resolvedCity, startDate, endDate)) {
+            if (!diaryArchiveService.mayBeArchived(startDate)) {
+                diaries.forEach(consumer);
+                return;
+            }
+            try (Stream<DiaryDto> archived = diaryArchiveRepository.streamAllByUserIdAndCityAndDateBetween(
+                    userId, resolvedCity, startDate, endDate)) {
+                forEachMerged(diaries.iterator(), archived.iterator(), consumer);
+            }
+        }
     }
 
-    public String getWeatherString() {
-        String apiUrl = "https://api.openweathermap.org/data/2.5/weather?q=seoul&appid=" + apiKey;
-
-
-        try {
-            URL url = new URL(apiUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection(); // 위에 url을 http 요청을 할 수 있게 보내주는 역할
-            connection.setRequestMethod("GET"); // 보내는 메소드는 get으로 하겠다
-            int responseCode = connection.getResponseCode();// code는 200 400 이런거니까 int 값으로 받아온다.
-
-            BufferedReader br; // 응답코드에 따라서 응답객체를 받아오고 br에 저장한다.
-
-            if (responseCode == 200) {
-                br = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+    private static void forEachMerged(Iterator<DiaryDto> first, Iterator<DiaryDto> second,
+                                      Consumer<DiaryDto> consumer) {
+        DiaryDto nextFirst = first.hasNext() ? first.next() : null;
+        DiaryDto nextSecond = second.hasNext() ? second.next() : null;
+        while (nextFirst != null || nextSecond != null) {
+            if (nextSecond == null || (nextFirst != null && DIARY_DTO_ORDER.compare(nextFirst, nextSecond) <= 0)) {
+                consumer.accept(nextFirst);
+                nextFirst = first.hasNext() ? first.next() : null;
             } else {
-                br = new BufferedReader(new InputStreamReader(connection.getErrorStream())); // 어떤 오류인지 보기 위해서
+                consumer.accept(nextSecond);
+                nextSecond = second.hasNext() ? second.next() : null;
             }
-            String inputLine;
-            StringBuilder response = new StringBuilder(); // br에 넣어두었던걸 하나하나 읽으면서 response라는 스트링빌더에
-            while ((inputLine = br.readLine()) != null) { // 결과값을 하나하나 쌓는다.
-                response.append(inputLine);
-            }
-            // 응답 또는 에러 코드가 길 수 있기 때문에 bufferedreader를 사용하면 긴 코드도 빠르게 받을 수 있어요.
+        }
+    }
 
+    // 일기 내용 검색. 띄어쓰기로 나눈 단어를 모두 포함하는 일기를 관련도 순으로 page(0부터) 단위로 가져온다.
+    // 기간이 보관 기준일 이전을 포함하면(시작일이 없을 때 포함) 보관된 일기도 같이 찾는다.
+    @Transactional(readOnly = true)
+    public DiarySearchPage searchDiaries(String userId, String query, LocalDate startDate, LocalDate endDate, String weather,
+                                         String city, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        List<String> terms = searchTerms(query);
+        if (terms.isEmpty() || offset >= MAX_SEARCH_RESULTS) {
+            return new DiarySearchPage(List.of(), page, pageSize, false);
+        }
 
-            br.close();
+        // 한 개 더 읽어서 다음 페이지가 있는지 확인
+        boolean includeArchived = startDate == null || diaryArchiveService.mayBeArchived(startDate);
+        List<DiarySearchHit> hits = diaryRepository.search(userId, weatherCities.resolve(city), terms,
+                startDate, endDate, weather, includeArchived, offset, pageSize + 1);
+        boolean hasNext = hits.size() > pageSize && offset + pageSize < MAX_SEARCH_RESULTS;
+        return new DiarySearchPage(hits.size() > pageSize ? hits.subList(0, pageSize) : hits,
+                page, pageSize, hasNext);
+    }
 
-            return response.toString();
-        } catch (Exception e) {
-            return "failed to get response";
+    // 소문자로 바꾸고 FULLTEXT boolean 연산자로 쓰이는 문자는 지운다.
+    private static List<String> searchTerms(String query) {
+        if (query == null) {
+            return List.of();
         }
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("\\s+"))
+                .map(term -> term.replaceAll("[+\\-<>()~*\"@]", ""))
+                .filter(term -> term.length() >= MIN_SEARCH_TERM_LENGTH)
+                .distinct()
+                .toList();
     }
 
-    //json 파싱을 위한 메소드
-    private Map<String, Object> parseWeather(String jsonString) {
-        JSONParser jsonParser = new JSONParser();
-        JSONObject jsonObject;
-
-        try {
-            jsonObject = (JSONObject) jsonParser.parse(jsonString);//파싱한 결과 값 담아주기
+    // 해당 날짜의 첫번째 일기 내용 수정
+    // 엔티티를 불러와서 merge 하지 않고, 인덱스로 id만 찾은 뒤 update 문 하나로 수정한다.
+    // 보관된 일기가 더 먼저(id 가 작으면) 보관된 쪽을 고친다.
+    @Transactional
+    public int updateDiary(String userId, LocalDate date, String city, String text) {
+        String resolvedCity = weatherCities.resolve(city);
+        Integer id = diaryRepository.findFirstIdByUserIdAndCityAndDate(userId, resolvedCity, date);
+        if (diaryArchiveService.mayBeArchived(date)) {
+            Integer archivedId = diaryArchiveRepository.findFirstIdByUserIdAndCityAndDate(userId, resolvedCity, date);
+            if (archivedId != null && (id == null || archivedId < id)) {
+                return bumpVersion(userId, resolvedCity, date, date, diaryArchiveRepository.updateTextById(archivedId, text));
+            }
+        }
+        if (id == null) {
+            return 0;
+        }
+        return bumpVersion(userId, resolvedCity, date, date, diaryRepository.updateTextById(id, text));
+    }
 
-        } catch (ParseException e) {
-            throw new RuntimeException(e); // 걍 에러가 났다. 요렇게만 처리되게
+    // 해당 날짜의 모든 일기 내용 수정
+    @Transactional
+    public int updateDiaries(String userId, LocalDate date, String city, String text) {
+        String resolvedCity = weatherCities.resolve(city);
+        int updated = diaryRepository.updateTextByUserIdAndCityAndDate(userId, resolvedCity, date, text);
+        if (diaryArchiveService.mayBeArchived(date)) {
+            updated += diaryArchiveRepository.updateTextByUserIdAndCityAndDate(userId, resolvedCity, date, text);
         }
-        Map<String, Object> resultMap = new HashMap<>();
+        return bumpVersion(userId, resolvedCity, date, date, updated);
+    }
 
-        JSONObject mainData = (JSONObject) jsonObject.get("main");
-        resultMap.put("temp", mainData.get("temp")); // main 안에 있는 temp를 가져오기 위해서
-        JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
-        JSONObject weatherData = (JSONObject) weatherArray.get(0); // api doc에서 가져오고자 하는 값이 정의된 response를 지정해준다.
-        resultMap.put("main", weatherData.get("main"));
-        resultMap.put("icon", weatherData.get("icon"));
-        System.out.println(getWeatherString());
-        return resultMap;
+    @Transactional
+    public int deleteDiary(String userId, LocalDate date, String city) {
+        String resolvedCity = weatherCities.resolve(city);
+        int deleted = diaryRepository.deleteAllByUserIdAndCityAndDate(userId, resolvedCity, date);
+        if (diaryArchiveService.mayBeArchived(date)) {
+            deleted += diaryArchiveRepository.deleteAllByUserIdAndCityAndDate(userId, resolvedCity, date);
+        }
+        if (deleted > 0) {
+            diaryStatsService.removeDiaries(userId, date, resolvedCity, deleted);
+        }
+        return bumpVersion(userId, resolvedCity, date, date, deleted);
+    }
 
+    // 기간 내 일기 전체 삭제
+    @Transactional
+    public int deleteDiaries(String userId, LocalDate startDate, LocalDate endDate, String city) {
+        String resolvedCity = weatherCities.resolve(city);
+        int deleted = diaryRepository.deleteAllByUserIdAndCityAndDateBetween(userId, resolvedCity, startDate, endDate);
+        if (diaryArchiveService.mayBeArchived(startDate)) {
+            deleted += diaryArchiveRepository.deleteAllByUserIdAndCityAndDateBetween(userId, resolvedCity,
+                    startDate, endDate);
+        }
+        if (deleted > 0) {
+            // 날짜별로 몇 건씩 지웠는지 모르므로 이 사용자의 걸친 달만 다시 집계
+            diaryStatsService.recompute(userId, resolvedCity, startDate, endDate);
+        }
+        return bumpVersion(userId, resolvedCity, startDate, endDate, deleted);
     }
 
-    // 자정마다 날씨 데이터를 가져와 줄 메서드
-    private DateWeather getWeatherFromApi(){
-        // 날씨 데이터 가져오기
-        String weatherData = getWeatherString();
+    // 조회 응답의 ETag/Last-Modified 용 버전. 일기는 읽지 않는다.
+    // 버전은 (사용자, 날짜, 도시) 단위라서 다른 사용자의 일기가 바뀌어도 내 ETag 는 그대로다.
+    @Transactional(readOnly = true)
+    public DiaryVersionTag getDiaryVersion(String userId, LocalDate startDate, LocalDate endDate, String city) {
+        return diaryVersionRepository.findTagByUserIdAndCityAndDateBetween(userId, weatherCities.resolve(city),
+                startDate, endDate);
+    }
 
-        // 받아온 날씨 json 파싱하기
-        Map<String, Object> parsedWeather = parseWeather(weatherData);
+    // 실제로 바뀐 행이 있을 때만 버전을 올린다.
+    private int bumpVersion(String userId, String city, LocalDate startDate, LocalDate endDate, int changed) {
+        if (changed > 0) {
+            diaryVersionRepository.bumpBetween(userId, city, startDate, endDate, LocalDateTime.now());
+        }
+        return changed;
+    }
 
-        // 파싱 된 날짜 데이터를 db에 저장
-        DateWeather dateWeather = new DateWeather();
+    // 해당 도시의 현재 날씨를 api 에서 가져오는 메서드
+    private DateWeather getWeatherFromApi(String city){
+        // 날씨 데이터를 한 번만 요청해서 바로 파싱, 실패하면 WeatherApiException
+        DateWeather dateWeather = weatherClient.fetch(city);
         dateWeather.setDate(LocalDate.now());
-        dateWeather.setWeather(parseWeather(weatherData).get("main").toString());
-        dateWeather.setIcon(parseWeather(weatherData).get("icon").toString());
-        dateWeather.setTemperature((Double)parseWeather(weatherData).get("temp"));
-
-
+        dateWeather.setCity(city);
         return dateWeather;
     }
 
-    private DateWeather getDateWeather(LocalDate date){
-        List<DateWeather> dateWeatherListFormDB = dateWeatherRepository.findAllByDate(date);
-        if(dateWeatherListFormDB.isEmpty()){
-            //새로 api에서 날씨 정보를 가져와야 한다.
-            // 현재 날씨를 가져오도록 정책을 정했다고 가정하자
-            return getWeatherFromApi();
-        }else{
-            return dateWeatherListFormDB.get(0);
+    private DateWeather getDateWeather(LocalDate date, String city){
+        // 캐시 -> DB 순서로 찾고, 둘 다 없으면 새로 api에서 날씨 정보를 가져와 저장한다.
+        // 현재 날씨를 가져오도록 정책을 정했다고 가정하자
+        try {
+            return dateWeatherCache.get(date, city, () -> getWeatherFromApi(city));
+        } catch (WeatherApiException e) {
+            return lastKnownWeather(date, city, e);
+        }
+    }
+
+    // 날씨 api 를 못 부르면(호출 한도 초과, 장애) 일기 작성을 실패시키지 않고 그 도시의 마지막 날씨로 대신한다(weather.degraded.enabled).
+    // 대신 쓴 날씨는 임시(degraded) 행으로 date_weather 에 저장해서, 나중에 읽어도 응답했던 날씨가 나오고 통계와도 맞는다.
+    // 같은 날짜의 다음 일기도 이 임시 날씨를 쓰고, 수집(WeatherIngestionService)이 빠진 도시로 보고 실제 날씨로 덮어쓰면서
+    // 캐시, 그 날짜의 버전과 월 통계를 다시 맞춘다.
+    private DateWeather lastKnownWeather(LocalDate date, String city, WeatherApiException cause) {
+        if (!degradedWeather) {
+            throw cause;
         }
+        // 다른 요청이 먼저 임시 날씨를 넣었으면 같은 날씨를 쓴다.
+        Optional<DateWeather> provisional = dateWeatherRepository.findByDateAndCity(date, city);
+        if (provisional.isEmpty()) {
+            DateWeather lastKnown = dateWeatherCache.lastKnown(city).orElseThrow(() -> cause);
+            logger.warn("weather api unavailable ({}), using weather of {} for {} {}",
+                    cause.getReason(), lastKnown.getDate(), city, date);
+            DateWeather substitute = new DateWeather(date, city, lastKnown.getWeather(), lastKnown.getIcon(),
+                    lastKnown.getTemperature());
+            substitute.setDegraded(true);
+            dateWeatherRepository.insertProvisional(substitute);
+            // 동시에 다른 요청이나 수집이 먼저 넣었으면 그 값을 쓴다.
+            provisional = dateWeatherRepository.findByDateAndCity(date, city);
+        }
+        degradedCount.increment();
+        return provisional.orElseThrow(() -> cause);
+    }
+
+    public WeatherCacheStats getWeatherCacheStats() {
+        return dateWeatherCache.stats();
     }
 
 
@@ -0,0 +1,180 @@
+package zerobase.weather.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.domain.DiaryMonthlyStats;
+import zerobase.weather.dto.DiaryStats;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.DiaryMonthlyStatsRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// 월별 일기 통계(diary_monthly_stats) 관리와 조회
+// - 일기 작성/삭제 시 해당 (사용자, 도시, 월, 날씨) 행에 더하고 빼는 증분 갱신
+// - 기간 삭제나 날씨가 바뀐 경우처럼 증분으로 맞추기 어려운 경우는 그 달을 다시 집계
+// - 동시 작성과 재집계가 겹쳐 생기는 오차는 매일 최근 몇 달을 다시 집계해서 맞춘다.
+@Service
+public class DiaryStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiaryStatsService.class);
+    static final String UNKNOWN_WEATHER = "Unknown";
+    static final String LOCK_NAME = "diary-stats-recompute";
+
+    private final DiaryMonthlyStatsRepository diaryMonthlyStatsRepository;
+    private final DateWeatherRepository dateWeatherRepository;
+    private final WeatherCities weatherCities;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int recomputeMonths;
+    private final Duration lockAtMostFor;
+
+    public DiaryStatsService(DiaryMonthlyStatsRepository diaryMonthlyStatsRepository,
+                             DateWeatherRepository dateWeatherRepository,
+                             WeatherCities weatherCities,
+                             SchedulerLockService schedulerLockService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${diary.stats.recompute-months:2}") int recomputeMonths,
+                             @Value("${diary.stats.lock-at-most-for:PT30M}") Duration lockAtMostFor) {
+        this.diaryMonthlyStatsRepository = diaryMonthlyStatsRepository;
+        this.dateWeatherRepository = dateWeatherRepository;
+        this.weatherCities = weatherCities;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recomputeMonths = recomputeMonths;
+        this.lockAtMostFor = lockAtMostFor;
+    }
+
+    // 날씨를 이미 알고 있을 때 (일기 작성)
+    @Transactional
+    public void addDiaries(String userId, DateWeather dateWeather, long count) {
+        diaryMonthlyStatsRepository.add(userId, dateWeather.getCity(), monthStart(dateWeather.getDate()),
+                dateWeather.getWeather(), count, dateWeather.getTemperature() * count, count);
+    }
+
+    // 날씨를 DB에서 찾아서 더한다. count 가 음수면 뺀다.
+    @Transactional
+    public void addDiaries(String userId, LocalDate date, String city, long count) {
+        DateWeather dateWeather = dateWeatherRepository.findById(new DateWeatherId(date, city)).orElse(null);
+        if (dateWeather == null) {
+            diaryMonthlyStatsRepository.add(userId, city, monthStart(date), UNKNOWN_WEATHER, count, 0, 0);
+        } else {
+            addDiaries(userId, dateWeather, count);
+        }
+    }
+
+    @Transactional
+    public void removeDiaries(String userId, LocalDate date, String city, long count) {
+        addDiaries(userId, date, city, -count);
+    }
+
+    // 기간에 걸친 달을 모두(모든 사용자) 다시 집계
+    public void recompute(String city, LocalDate startDate, LocalDate endDate) {
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            recompute(city, month);
+        }
+    }
+
+    public void recompute(String city, YearMonth month) {
+        transactionTemplate.executeWithoutResult(status -> {
+            diaryMonthlyStatsRepository.deleteMonth(city, month.atDay(1));
+            diaryMonthlyStatsRepository.insertMonthFromDiaries(city, month.atDay(1), month.atEndOfMonth());
+        });
+    }
+
+    // 한 사용자의 기간에 걸친 달만 다시 집계 (기간 삭제)
+    public void recompute(String userId, String city, LocalDate startDate, LocalDate endDate) {
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            LocalDate monthStart = month.atDay(1);
+            LocalDate monthEnd = month.atEndOfMonth();
+            transactionTemplate.executeWithoutResult(status -> {
+                diaryMonthlyStatsRepository.deleteUserMonth(userId, city, monthStart);
+                diaryMonthlyStatsRepository.insertUserMonthFromDiaries(userId, city, monthStart, monthEnd);
+            });
+        }
+    }
+
+    // 매일 최근 diary.stats.recompute-months 개월을 다시 집계 (여러 서버 중 한 곳에서만)
+    @Scheduled(cron = "${diary.stats.recompute-cron:0 30 2 * * *}")
+    public void recomputeRecentMonths() {
+        schedulerLockService.runLocked(LOCK_NAME, lockAtMostFor, () -> {
+            YearMonth current = YearMonth.now();
+            for (String city : weatherCities.all()) {
+                for (int i = 0; i < recomputeMonths; i++) {
+                    recompute(city, current.minusMonths(i));
+                }
+            }
+            logger.info("recomputed diary stats of last {} months", recomputeMonths);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<DiaryStats> readMonthly(String userId, YearMonth startMonth, YearMonth endMonth, String city) {
+        return aggregate(userId, startMonth.atDay(1), endMonth.atDay(1), city,
+                monthStart -> YearMonth.from(monthStart).toString());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DiaryStats> readYearly(String userId, int startYear, int endYear, String city) {
+        return aggregate(userId, LocalDate.of(startYear, 1, 1), LocalDate.of(endYear, 12, 1), city,
+                monthStart -> String.valueOf(monthStart.getYear()));
+    }
+
+    // 월별 행을 period 단위로 묶는다. 읽는 행 수는 (월 수 x 날씨 종류 수)
+    private List<DiaryStats> aggregate(String userId, LocalDate startMonth, LocalDate endMonth, String city,
+                                       Function<LocalDate, String> period) {
+        List<DiaryMonthlyStats> rows =
+                diaryMonthlyStatsRepository.findAllByUserIdAndCityAndMonthStartBetweenOrderByMonthStart(
+                        userId, weatherCities.resolve(city), startMonth, endMonth);
+
+        Map<String, Accumulator> periods = new LinkedHashMap<>();
+        for (DiaryMonthlyStats row : rows) {
+            if (row.getDiaryCount() <= 0) {
+                continue;
+            }
+            periods.computeIfAbsent(period.apply(row.getMonthStart()), key -> new Accumulator()).add(row);
+        }
+
+        List<DiaryStats> stats = new ArrayList<>(periods.size());
+        periods.forEach((key, accumulator) -> stats.add(accumulator.toStats(key)));
+        return stats;
+    }
+
+    private static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private static class Accumulator {
+        private long diaryCount;
+        private double temperatureSum;
+        private long temperatureCount;
+        private final Map<String, Long> weatherCounts = new TreeMap<>();
+
+        void add(DiaryMonthlyStats row) {
+            diaryCount += row.getDiaryCount();
+            temperatureSum += row.getTemperatureSum();
+            temperatureCount += row.getTemperatureCount();
+            weatherCounts.merge(row.getWeather(), row.getDiaryCount(), Long::sum);
+        }
+
+        DiaryStats toStats(String period) {
+            Double averageTemperature = temperatureCount == 0 ? null : temperatureSum / temperatureCount;
+            return new DiaryStats(period, diaryCount, averageTemperature, weatherCounts);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package zerobase.weather.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.error.IngestQueueFull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 비동기(write-behind) 저장 모드에서 사용하는 큐
+// 요청 스레드는 큐에 넣고 바로 응답하고, 별도 스레드가 batch-size 만큼 모이거나 flush-interval 이 지나면
+// jdbc batch insert 로 한 번에 저장한다. 큐가 가득 차면 IngestQueueFull(503)로 밀어낸다.
+// 이미 202 로 응답한 일기라서 저장에 실패해도 버리지 않는다.
+// - batch insert 가 실패하면 retry-backoff 부터 두 배씩 늘려가며 retry-attempts 번까지 다시 넣는다.
+// - 그래도 실패하면 한 건씩 넣어서, 넣을 수 없는 일기만 dead-letter-file(ndjson)에 남긴다.
+// diary.ingest.mode=async 일 때만 등록된다.
+@Component
+@ConditionalOnProperty(name = "diary.ingest.mode", havingValue = "async")
+public class DiaryWriteBehindQueue implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiaryWriteBehindQueue.class);
+
+    private final DiaryBatchWriter diaryBatchWriter;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Diary> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final int retryAttempts;
+    private final Duration retryBackoff;
+    private final Path deadLetterFile;
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    // enqueue 는 읽기 락, stop 은 쓰기 락: running 을 내린 뒤에는 큐에 들어오는 일기가 없다.
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public DiaryWriteBehindQueue(DiaryBatchWriter diaryBatchWriter, ObjectMapper objectMapper,
+                                 @Value("${diary.ingest.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${diary.ingest.batch-size:500}") int batchSize,
+                                 @Value("${diary.ingest.flush-interval:PT0.2S}") Duration flushInterval,
+                                 @Value("${diary.ingest.offer-timeout:PT0.1S}") Duration offerTimeout,
+                                 @Value("${diary.ingest.retry-attempts:3}") int retryAttempts,
+                                 @Value("${diary.ingest.retry-backoff:PT0.1S}") Duration retryBackoff,
+                                 @Value("${diary.ingest.dead-letter-file:./diary-dead-letter.ndjson}") Path deadLetterFile) {
+        this.diaryBatchWriter = diaryBatchWriter;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.retryAttempts = Math.max(1, retryAttempts);
+        this.retryBackoff = retryBackoff;
+        this.deadLetterFile = deadLetterFile;
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = new Thread(this::runFlusher, "diary-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // 종료 시 큐에 남은 일기를 모두 저장하고 끝낸다.
+    // flusher 가 제때 끝나지 않으면(멈췄거나 인터럽트) 남은 일기는 이 스레드에서 직접 저장한다.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+        flusher.join(flushInterval.toMillis() + 30_000);
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+        }
+        drainRemaining();
+    }
+
+    // 큐에 쌓인 일기 수 (저장이 밀리고 있는지), 저장하지 못하고 dead-letter 로 보낸 일기 수
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("diary.ingest.queue.size", queue, BlockingQueue::size).register(registry);
+        Gauge.builder("diary.ingest.dead-lettered", deadLettered, AtomicLong::get).register(registry);
+    }
+
+    public void enqueue(Diary diary) {
+        stopLock.readLock().lock();
+        try {
+            if (!running || !queue.offer(diary, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IngestQueueFull();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestQueueFull();
+        } finally {
+            stopLock.readLock().unlock();
+        }
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    long deadLetteredCount() {
+        return deadLettered.get();
+    }
+
+    private void runFlusher() {
+        List<Diary> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Diary first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // batch-size 만큼 모일 때까지 flush-interval 동안만 더 기다린다.
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Diary next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // 모으던 batch 와 큐에 남은 일기는 기다리지 않고 바로 저장한다.
+            Thread.currentThread().interrupt();
+            logger.warn("write-behind flusher interrupted, saving {} diaries now", batch.size() + queue.size());
+            saveOrDeadLetter(batch);
+            drainRemaining();
+        }
+    }
+
+    private void drainRemaining() {
+        List<Diary> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            saveOrDeadLetter(batch);
+            batch.clear();
+        }
+    }
+
+    // 실패하면 backoff 를 두 배씩 늘려가며 다시 넣고, 끝내 실패하면 한 건씩 넣는다.
+    private void flush(List<Diary> batch) throws InterruptedException {
+        long backoff = retryBackoff.toMillis();
+        for (int attempt = 1; attempt <= retryAttempts; attempt++) {
+            try {
+                diaryBatchWriter.insertAll(batch);
+                logger.debug("flushed {} diaries", batch.size());
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("failed to flush {} diaries (attempt {}/{})", batch.size(), attempt, retryAttempts, e);
+            }
+            if (attempt < retryAttempts) {
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+        insertOneByOne(batch);
+    }
+
+    // 종료 중에는 기다리지 않고 한 번만 batch 로 넣어본다.
+    private void saveOrDeadLetter(List<Diary> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            diaryBatchWriter.insertAll(batch);
+        } catch (RuntimeException e) {
+            logger.warn("failed to flush {} diaries on shutdown", batch.size(), e);
+            insertOneByOne(batch);
+        }
+    }
+
+    private void insertOneByOne(List<Diary> batch) {
+        for (Diary diary : batch) {
+            try {
+                diaryBatchWriter.insertAll(List.of(diary));
+            } catch (RuntimeException e) {
+                logger.error("failed to save diary {}, writing it to {}", diary.getId(), deadLetterFile, e);
+                deadLetter(diary);
+            }
+        }
+    }
+
+    // 한 줄에 일기 하나(json). 원인을 고친 뒤 사용자별로 일괄 가져오기(ndjson)로 다시 넣을 수 있다.
+    private synchronized void deadLetter(Diary diary) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", diary.getId());
+        record.put("userId", diary.getUserId());
+        record.put("date", String.valueOf(diary.getDate()));
+        record.put("city", diary.getCity());
+        record.put("text", diary.getText());
+        try (Writer writer = Files.newBufferedWriter(deadLetterFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.write('\n');
+        } catch (IOException e) {
+            logger.error("failed to write dead letter, diary lost: {}", record, e);
+        }
+        deadLettered.incrementAndGet();
+    }
+}
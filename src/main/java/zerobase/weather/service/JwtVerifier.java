@@ -0,0 +1,118 @@
+package zerobase.weather.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+// HS256 으로 서명된 JWT 를 검증해서 사용자 id(sub)를 돌려준다. 토큰 발급은 이 서버가 하지 않는다.
+// 서버에 세션을 두지 않고 토큰만 보고 판단한다(stateless). 키와 파서는 시작할 때 한 번만 만들고,
+// 검증한 토큰은 (사용자 id, 만료 시각)만 diary.auth.jwt.cache-ttl 동안 기억해서
+// 같은 토큰이 다시 오면 base64/json 파싱과 서명 계산 없이 만료 시각만 비교한다.
+// diary.auth.jwt.secret(base64, 32바이트 이상)이 비어 있으면 모든 토큰을 거절한다.
+@Component
+public class JwtVerifier implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+    // diary.user_id 컬럼 길이
+    private static final int MAX_USER_ID_LENGTH = 64;
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+    private final LongAdder cacheHitCount = new LongAdder();
+    private final LongAdder parsedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public JwtVerifier(@Value("${diary.auth.jwt.secret:}") String secret,
+                       @Value("${diary.auth.jwt.cache-size:100000}") long cacheSize,
+                       @Value("${diary.auth.jwt.cache-ttl:PT5M}") Duration cacheTtl) {
+        if (secret.isBlank()) {
+            logger.warn("diary.auth.jwt.secret is not set, every token will be rejected");
+            this.parser = null;
+        } else {
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                    .build();
+        }
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // 검증에 실패하면(서명, 만료, sub/exp 없음) null
+    public String verify(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verified.getIfPresent(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                cacheHitCount.increment();
+                return cached.userId();
+            }
+            verified.invalidate(token);
+            return reject();
+        }
+        if (parser == null) {
+            return reject();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return reject();
+        }
+        String userId = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        // 만료 없는 토큰은 캐시에서도 영원히 유효해지므로 받지 않는다.
+        if (userId == null || userId.isBlank() || userId.length() > MAX_USER_ID_LENGTH || expiration == null) {
+            return reject();
+        }
+        verified.put(token, new VerifiedToken(userId, expiration.getTime()));
+        parsedCount.increment();
+        return userId;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("diary.auth.tokens", cacheHitCount, LongAdder::sum)
+                .tag("result", "cached")
+                .description("tokens accepted from the verified token cache")
+                .register(registry);
+        FunctionCounter.builder("diary.auth.tokens", parsedCount, LongAdder::sum)
+                .tag("result", "verified")
+                .description("tokens accepted after parsing and checking the signature")
+                .register(registry);
+        FunctionCounter.builder("diary.auth.tokens", rejectedCount, LongAdder::sum)
+                .tag("result", "rejected")
+                .description("tokens rejected")
+                .register(registry);
+        Gauge.builder("diary.auth.token-cache.size", verified, Cache::estimatedSize)
+                .description("verified tokens in the cache")
+                .register(registry);
+    }
+
+    private String reject() {
+        rejectedCount.increment();
+        return null;
+    }
+
+    private record VerifiedToken(String userId, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,47 @@
+package zerobase.weather.service;
+
+import org.springframework.stereotype.Service;
+import zerobase.weather.repository.SchedulerLockRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// scheduler_lock 테이블로 잡는 작업 잠금
+// 별도 인프라 없이 지금 쓰는 DB(로컬 MySQL, 테스트 H2) 그대로 동작한다.
+// 서버들의 시계가 대략 맞다고 가정하고, lockAtMostFor 는 작업이 걸릴 수 있는 최대 시간보다 넉넉하게 준다.
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String owner;
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        LocalDateTime now = LocalDateTime.now();
+        schedulerLockRepository.insertIfAbsent(name, now);
+        return schedulerLockRepository.acquire(name, owner, now, now.plus(lockAtMostFor)) == 1;
+    }
+
+    public void unlock(String name) {
+        schedulerLockRepository.release(name, owner, LocalDateTime.now());
+    }
+
+    // 잠금을 잡은 경우에만 작업을 실행하고 true, 다른 서버가 잡고 있으면 false
+    public boolean runLocked(String name, Duration lockAtMostFor, Runnable task) {
+        if (!tryLock(name, lockAtMostFor)) {
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            unlock(name);
+        }
+    }
+}
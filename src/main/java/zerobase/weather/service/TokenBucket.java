@@ -0,0 +1,71 @@
+package zerobase.weather.service;
+
+import java.util.function.LongSupplier;
+
+// 토큰 버킷: 초당 refillPerSecond 개씩 채워지고 최대 capacity 개까지 쌓인다.
+// 요청 하나가 토큰 하나를 쓰므로 평균은 refillPerSecond, 순간적으로는 capacity 만큼까지 몰아서 허용한다.
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNanos;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(double capacity, double refillPerSecond, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerNanos = refillPerSecond / 1e9;
+        this.nanoClock = nanoClock;
+        this.tokens = this.capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // 토큰 하나를 예약하고 그 토큰이 채워질 때까지 기다려야 하는 시간(ns)을 돌려준다. 바로 쓸 수 있으면 0
+    // maxWaitNanos 보다 오래 기다려야 하면 예약하지 않고 -1
+    public synchronized long reserve(long maxWaitNanos) {
+        refill();
+        long wait = nanosUntil(1);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    // 다음 토큰이 생길 때까지 남은 시간(ns) (Retry-After 용)
+    public synchronized long nanosUntilAvailable() {
+        refill();
+        return nanosUntil(1);
+    }
+
+    public synchronized double availableTokens() {
+        refill();
+        return Math.max(0, tokens);
+    }
+
+    private long nanosUntil(double needed) {
+        if (tokens >= needed) {
+            return 0;
+        }
+        return (long) Math.ceil((needed - tokens) / refillPerNanos);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNanos);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,27 @@
+package zerobase.weather.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 날씨 캐시 통계 스냅샷
+@Getter
+@AllArgsConstructor
+public class WeatherCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long waitCount; // 다른 요청의 로딩을 기다린 수
+    private final long loadCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long size;
+
+    public double getHitRate() {
+        long requestCount = hitCount + missCount + waitCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public double getAverageLoadPenaltyNanos() {
+        long totalLoads = loadCount + loadFailureCount;
+        return totalLoads == 0 ? 0.0 : (double) totalLoadTimeNanos / totalLoads;
+    }
+}
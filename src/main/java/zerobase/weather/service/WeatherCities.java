@@ -0,0 +1,47 @@
+package zerobase.weather.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import zerobase.weather.error.InvalidCity;
+
+import java.util.List;
+import java.util.Locale;
+
+// 날씨를 제공하는 도시 목록 (weather.cities)
+// 요청으로 들어온 도시 이름을 정리하고, 목록에 없는 도시는 막아서 아무 도시로나 외부 api 를 부르지 않게 한다.
+@Component
+public class WeatherCities {
+
+    private final List<String> cities;
+    private final String defaultCity;
+
+    public WeatherCities(@Value("${weather.cities:seoul}") List<String> cities,
+                         @Value("${weather.default-city:seoul}") String defaultCity) {
+        this.cities = cities.stream().map(WeatherCities::normalize).distinct().toList();
+        this.defaultCity = normalize(defaultCity);
+    }
+
+    public List<String> all() {
+        return cities;
+    }
+
+    public String defaultCity() {
+        return defaultCity;
+    }
+
+    // 도시를 안 주면 기본 도시
+    public String resolve(String city) {
+        if (city == null || city.isBlank()) {
+            return defaultCity;
+        }
+        String normalized = normalize(city);
+        if (!cities.contains(normalized)) {
+            throw new InvalidCity();
+        }
+        return normalized;
+    }
+
+    private static String normalize(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+}
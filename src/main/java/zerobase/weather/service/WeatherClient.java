@@ -0,0 +1,198 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.error.WeatherApiException.Reason;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// open weather_map 비동기 클라이언트
+// HttpClient 하나를 재사용해서 keep-alive 커넥션(HTTP/2 가능하면 HTTP/2)을 공유하고,
+// 연결/응답 timeout, 호출 한도(WeatherQuotaLimiter), 동시 요청 수 제한을 건다. 실패는 WeatherApiException(Reason)으로 돌려준다.
+// 한도를 기다리는 동안에도 스레드를 잡아두지 않는다(fetchAsync 는 바로 future 를 돌려준다).
+// spring.threads.virtual.enabled=true(Java 21)면 응답 처리도 가상 스레드에서 한다.
+// 호출마다 weather.api.requests 타이머(outcome=SUCCESS 또는 실패 Reason)로 지연시간/에러율을 남긴다.
+@Component
+public class WeatherClient {
+
+    private final HttpClient httpClient;
+    private final WeatherParser weatherParser;
+    private final WeatherQuotaLimiter quotaLimiter;
+    private final Semaphore permits;
+    private final Queue<CompletableFuture<Void>> permitWaiters = new ConcurrentLinkedQueue<>();
+    private final String apiKey;
+    private final String apiUrl;
+    private final Duration requestTimeout;
+    private final Duration acquireTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public WeatherClient(WeatherParser weatherParser, WeatherQuotaLimiter quotaLimiter, MeterRegistry meterRegistry,
+                         @Value("${openweathermap.key}") String apiKey,
+                         @Value("${openweathermap.url:https://api.openweathermap.org/data/2.5/weather}") String apiUrl,
+                         @Value("${weather.client.connect-timeout:PT2S}") Duration connectTimeout,
+                         @Value("${weather.client.request-timeout:PT5S}") Duration requestTimeout,
+                         @Value("${weather.client.max-concurrent-requests:16}") int maxConcurrentRequests,
+                         @Value("${weather.client.acquire-timeout:PT1S}") Duration acquireTimeout,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.weatherParser = weatherParser;
+        this.quotaLimiter = quotaLimiter;
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+        this.requestTimeout = requestTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("weather.api.in-flight", permits, p -> maxConcurrentRequests - p.availablePermits())
+                .description("weather api requests currently holding a permit")
+                .register(meterRegistry);
+        HttpClient.Builder builder = HttpClient.newBuilder();
+        if (virtualThreads) {
+            builder.executor(new VirtualThreadTaskExecutor("weather-client-"));
+        }
+        this.httpClient = builder
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    // 호출 스레드를 막지 않는다. 호출 한도와 동시 요청 수를 기다리는 것도 future 로 기다린다.
+    public CompletableFuture<DateWeather> fetchAsync(String city) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return send(city)
+                .exceptionallyCompose(throwable -> CompletableFuture.failedFuture(toWeatherApiException(throwable)))
+                .whenComplete((dateWeather, throwable) -> sample.stop(requestTimer(throwable)));
+    }
+
+    private CompletableFuture<DateWeather> send(String city) {
+        // 호출 한도가 남아있지 않으면 잠깐 기다리고, 그래도 안되면 실패
+        return quotaLimiter.acquireAsync()
+                .thenCompose(ignored -> acquirePermit())
+                .thenCompose(ignored -> exchange(city));
+    }
+
+    // 동시 요청이 한도만큼 차 있으면 acquire-timeout 동안 줄 서서 기다리고, 그래도 안되면 실패
+    private CompletableFuture<Void> acquirePermit() {
+        if (permits.tryAcquire()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        permitWaiters.add(waiter);
+        // 줄에 서는 사이에 반납된 permit 을 놓치지 않도록 한 번 더 확인한다.
+        if (permits.tryAcquire() && !waiter.complete(null)) {
+            releasePermit();
+        }
+        return waiter.orTimeout(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(throwable -> {
+                    permitWaiters.remove(waiter);
+                    return CompletableFuture.failedFuture(
+                            new WeatherApiException(Reason.REJECTED, "too many concurrent weather requests"));
+                });
+    }
+
+    // 기다리는 요청이 있으면 permit 을 그대로 넘기고(시간이 지나 포기한 요청은 건너뛴다), 없으면 반납한다.
+    private void releasePermit() {
+        CompletableFuture<Void> waiter;
+        while ((waiter = permitWaiters.poll()) != null) {
+            if (waiter.complete(null)) {
+                return;
+            }
+        }
+        permits.release();
+    }
+
+    // 본문까지 다 받을 때까지를 request-timeout 으로 제한한다. (HttpRequest.timeout 은 응답 헤더까지만 잰다)
+    // 시간이 지나면 요청을 취소해서 커넥션이 느린 본문을 계속 읽지 않게 한다.
+    private CompletableFuture<DateWeather> exchange(String city) {
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(requestUri(city))
+                    .timeout(requestTimeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            releasePermit();
+            return CompletableFuture.failedFuture(e);
+        }
+        return response
+                .thenApply(this::toDateWeather)
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((dateWeather, throwable) -> {
+                    if (throwable instanceof TimeoutException) {
+                        response.cancel(true);
+                    }
+                    releasePermit();
+                });
+    }
+
+    // 동기 호출용. 실패 시 WeatherApiException 을 그대로 던진다.
+    public DateWeather fetch(String city) {
+        try {
+            return fetchAsync(city).join();
+        } catch (CompletionException e) {
+            throw toWeatherApiException(e);
+        }
+    }
+
+    private Timer requestTimer(Throwable throwable) {
+        String outcome = throwable == null ? "SUCCESS" : toWeatherApiException(throwable).getReason().name();
+        return Timer.builder("weather.api.requests")
+                .description("openweathermap call latency")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private URI requestUri(String city) {
+        return URI.create(apiUrl + "?q=" + URLEncoder.encode(city, StandardCharsets.UTF_8) + "&appid=" + apiKey);
+    }
+
+    private DateWeather toDateWeather(HttpResponse<byte[]> response) {
+        try {
+            if (response.statusCode() != 200) {
+                // 에러 응답 본문은 파싱하지 않고 상태 코드만 넘긴다.
+                throw new WeatherApiException(Reason.HTTP_STATUS,
+                        "weather api responded with status " + response.statusCode(), response.statusCode(), null);
+            }
+            return weatherParser.parse(response.body());
+        } catch (IOException e) {
+            throw new WeatherApiException(Reason.PARSE_ERROR, "failed to parse weather response", e);
+        }
+    }
+
+    private static WeatherApiException toWeatherApiException(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof WeatherApiException weatherApiException) {
+            return weatherApiException;
+        }
+        if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+            return new WeatherApiException(Reason.TIMEOUT, "weather api timed out", cause);
+        }
+        return new WeatherApiException(Reason.IO_ERROR, "failed to call weather api", cause);
+    }
+}
@@ -0,0 +1,79 @@
+package zerobase.weather.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// 매일 날씨 수집 + 서버 시작 시 빠진 날씨 채우기
+// 여러 서버가 떠 있어도 scheduler_lock 으로 한 곳에서만 돌고, 이미 저장된 도시는 다시 가져오지 않는다.
+@Component
+public class WeatherIngestionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherIngestionScheduler.class);
+    static final String LOCK_NAME = "weather-ingestion";
+
+    private final WeatherIngestionService weatherIngestionService;
+    private final SchedulerLockService schedulerLockService;
+    private final TaskScheduler taskScheduler;
+    private final boolean backfillOnStartup;
+    private final int backfillDays;
+    private final Duration lockAtMostFor;
+
+    public WeatherIngestionScheduler(WeatherIngestionService weatherIngestionService,
+                                     SchedulerLockService schedulerLockService, TaskScheduler taskScheduler,
+                                     @Value("${weather.ingest.backfill-on-startup:true}") boolean backfillOnStartup,
+                                     @Value("${weather.ingest.backfill-days:7}") int backfillDays,
+                                     @Value("${weather.ingest.lock-at-most-for:PT30M}") Duration lockAtMostFor) {
+        this.weatherIngestionService = weatherIngestionService;
+        this.schedulerLockService = schedulerLockService;
+        this.taskScheduler = taskScheduler;
+        this.backfillOnStartup = backfillOnStartup;
+        this.backfillDays = backfillDays;
+        this.lockAtMostFor = lockAtMostFor;
+    }
+
+    @Scheduled(cron = "${weather.ingest.cron:0 0 1 * * *}") // 초 분 시 매일 매월
+    public void saveWeatherDate() {
+        boolean ran = schedulerLockService.runLocked(LOCK_NAME, lockAtMostFor,
+                () -> weatherIngestionService.ingestMissing(LocalDate.now()));
+        if (ran) {
+            logger.info("오늘도 날씨 데이터 잘 가져옴");
+        } else {
+            logger.info("weather ingestion is running on another node, skipped");
+        }
+    }
+
+    // 시작을 막지 않도록 스케줄러 스레드에서 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBackfill() {
+        if (backfillOnStartup) {
+            taskScheduler.schedule(this::backfill, Instant.now());
+        }
+    }
+
+    // 오늘 날씨가 빠졌으면 지금 가져온다.
+    // 외부 api 는 현재 날씨만 주므로 지난 날짜는 채울 수 없고, 빠진 날짜를 로그로만 남긴다.
+    public void backfill() {
+        schedulerLockService.runLocked(LOCK_NAME, lockAtMostFor, () -> {
+            LocalDate today = LocalDate.now();
+            for (int i = backfillDays; i >= 1; i--) {
+                LocalDate date = today.minusDays(i);
+                List<String> missing = weatherIngestionService.missingCities(date);
+                if (!missing.isEmpty()) {
+                    logger.warn("weather of {} for {} is missing and cannot be backfilled", missing, date);
+                }
+            }
+            weatherIngestionService.ingestMissing(today);
+        });
+    }
+}
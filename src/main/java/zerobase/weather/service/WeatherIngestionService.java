@@ -0,0 +1,188 @@
+package zerobase.weather.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.DiaryVersionRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// 설정된 모든 도시(weather.cities)의 날씨를 병렬로 가져와서 한 번에 저장(upsert)한다.
+// 동시에 나가는 요청 수는 weather.ingest.parallelism 크기의 스레드 풀로 제한
+// 가상 스레드 모드에서는 도시마다 가상 스레드를 쓰고, 동시 요청 수는 WeatherClient 의 한도로 제한된다.
+// 다시 시도할 만한 실패(시간 초과, 5xx 등)는 지수 백오프로 weather.ingest.retry.max-attempts 번까지 다시 가져온다.
+@Service
+public class WeatherIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherIngestionService.class);
+
+    private final WeatherClient weatherClient;
+    private final WeatherCities weatherCities;
+    private final DateWeatherRepository dateWeatherRepository;
+    private final DateWeatherCache dateWeatherCache;
+    private final DiaryVersionRepository diaryVersionRepository;
+    private final DiaryStatsService diaryStatsService;
+    private final Executor executor;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public WeatherIngestionService(WeatherClient weatherClient, WeatherCities weatherCities,
+                                   DateWeatherRepository dateWeatherRepository, DateWeatherCache dateWeatherCache,
+                                   DiaryVersionRepository diaryVersionRepository, DiaryStatsService diaryStatsService,
+                                   @Value("${weather.ingest.parallelism:8}") int parallelism,
+                                   @Value("${weather.ingest.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${weather.ingest.retry.initial-backoff:PT2S}") Duration initialBackoff,
+                                   @Value("${weather.ingest.retry.max-backoff:PT1M}") Duration maxBackoff,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.weatherClient = weatherClient;
+        this.weatherCities = weatherCities;
+        this.dateWeatherRepository = dateWeatherRepository;
+        this.dateWeatherCache = dateWeatherCache;
+        this.diaryVersionRepository = diaryVersionRepository;
+        this.diaryStatsService = diaryStatsService;
+        this.executor = virtualThreads
+                ? new VirtualThreadTaskExecutor("weather-ingest-")
+                : Executors.newFixedThreadPool(parallelism);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    public List<DateWeather> ingest(LocalDate date) {
+        return ingest(date, weatherCities.all());
+    }
+
+    // 해당 날짜에 아직 날씨가 저장되지 않은 도시만 가져온다.
+    public List<DateWeather> ingestMissing(LocalDate date) {
+        List<String> missing = missingCities(date);
+        if (missing.isEmpty()) {
+            return List.of();
+        }
+        return ingest(date, missing);
+    }
+
+    public List<String> missingCities(LocalDate date) {
+        // 임시(degraded) 날씨만 있는 도시도 다시 가져온다.
+        Set<String> saved = dateWeatherRepository.findAllByDate(date).stream()
+                .filter(dateWeather -> !dateWeather.isDegraded())
+                .map(DateWeather::getCity)
+                .collect(Collectors.toSet());
+        return weatherCities.all().stream()
+                .filter(city -> !saved.contains(city))
+                .toList();
+    }
+
+    // 가져오기에 성공한 도시들의 날씨만 저장하고, 저장한 목록을 돌려준다.
+    // 시도마다 성공한 도시는 바로 저장하므로 중간에 멈춰도 다음 실행은 남은 도시만 가져오면 된다.
+    public List<DateWeather> ingest(LocalDate date, List<String> cities) {
+        List<DateWeather> saved = new ArrayList<>(cities.size());
+        List<String> pending = cities;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<String> retry = new ArrayList<>();
+            List<DateWeather> fetched = fetchAll(date, pending, retry, attempt);
+
+            dateWeatherRepository.upsertAll(fetched);
+            fetched.forEach(dateWeatherCache::put);
+            // 날씨가 바뀐 날짜의 일기 응답도 바뀌므로 버전을 올린다(ETag).
+            LocalDateTime now = LocalDateTime.now();
+            // 이미 일기가 있던 날짜면 월 통계의 날씨 분포도 다시 집계
+            for (DateWeather dateWeather : fetched) {
+                if (diaryVersionRepository.bumpAllUsersBetween(
+                        dateWeather.getCity(), dateWeather.getDate(), dateWeather.getDate(), now) > 0) {
+                    diaryStatsService.recompute(dateWeather.getCity(), YearMonth.from(dateWeather.getDate()));
+                }
+            }
+            saved.addAll(fetched);
+
+            if (retry.isEmpty() || attempt >= maxAttempts) {
+                if (!retry.isEmpty()) {
+                    logger.error("gave up fetching weather of {} for {} after {} attempts", retry, date, attempt);
+                }
+                break;
+            }
+            if (!sleep(backoff(attempt))) {
+                break;
+            }
+            pending = retry;
+        }
+        logger.info("saved weather of {}/{} cities for {}", saved.size(), cities.size(), date);
+        return saved;
+    }
+
+    private List<DateWeather> fetchAll(LocalDate date, List<String> cities, List<String> retry, int attempt) {
+        List<CompletableFuture<DateWeather>> futures = new ArrayList<>(cities.size());
+        for (String city : cities) {
+            futures.add(CompletableFuture.supplyAsync(() -> fetch(date, city), executor));
+        }
+
+        List<DateWeather> fetched = new ArrayList<>(cities.size());
+        for (int i = 0; i < cities.size(); i++) {
+            String city = cities.get(i);
+            try {
+                fetched.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof WeatherApiException apiException && apiException.isRetryable()) {
+                    logger.warn("failed to fetch weather of {} for {} (attempt {}): {}",
+                            city, date, attempt, cause.getMessage());
+                    retry.add(city);
+                } else {
+                    logger.error("failed to fetch weather of {} for {}", city, date, cause);
+                }
+            }
+        }
+        return fetched;
+    }
+
+    // initialBackoff * 2^(attempt-1), 최대 maxBackoff, 여러 서버가 동시에 다시 부르지 않도록 +-20% 지터
+    Duration backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        long jitter = (long) (capped * ThreadLocalRandom.current().nextDouble(-0.2, 0.2));
+        return Duration.ofMillis(Math.max(0, capped + jitter));
+    }
+
+    private boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private DateWeather fetch(LocalDate date, String city) {
+        DateWeather dateWeather = weatherClient.fetch(city);
+        dateWeather.setDate(date);
+        dateWeather.setCity(city);
+        return dateWeather;
+    }
+}
@@ -0,0 +1,99 @@
+package zerobase.weather.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.DateWeather;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// open weather_map 응답 json 파싱
+// 응답 전체를 문자열이나 Map으로 만들지 않고, 스트림을 읽으면서 필요한 값(main.temp, weather[0].main, weather[0].icon)만 꺼낸다.
+@Component
+public class WeatherParser {
+
+    // JsonFactory는 thread-safe 하므로 하나만 만들어서 재사용
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public DateWeather parse(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return parse(parser);
+        }
+    }
+
+    public DateWeather parse(byte[] body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    private DateWeather parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "weather response is not a json object");
+        }
+        DateWeather dateWeather = new DateWeather();
+        boolean hasTemperature = false;
+        boolean hasWeather = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("main".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                hasTemperature |= readMain(parser, dateWeather);
+            } else if ("weather".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                hasWeather |= readFirstWeather(parser, dateWeather);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!hasTemperature || !hasWeather) {
+            throw new JsonParseException(parser, "weather response has no main.temp or weather[0]");
+        }
+        return dateWeather;
+    }
+
+    // "main": { "temp": 280.32, ... }
+    private boolean readMain(JsonParser parser, DateWeather dateWeather) throws IOException {
+        boolean found = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if ("temp".equals(fieldName)) {
+                dateWeather.setTemperature(parser.getValueAsDouble());
+                found = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return found;
+    }
+
+    // "weather": [ { "main": "Clear", "icon": "01d", ... }, ... ] 에서 첫번째 값만 사용
+    private boolean readFirstWeather(JsonParser parser, DateWeather dateWeather) throws IOException {
+        boolean found = false;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (!found && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    parser.nextToken();
+                    if ("main".equals(fieldName)) {
+                        dateWeather.setWeather(parser.getText());
+                    } else if ("icon".equals(fieldName)) {
+                        dateWeather.setIcon(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                found = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,75 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.error.WeatherApiException.Reason;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// openweathermap 키의 호출 한도(quota)를 넘지 않도록 서버 전체의 날씨 api 호출을 토큰 버킷으로 제한한다.
+// 토큰이 없으면 max-wait 동안 줄 서서(future 로) 기다리고, 줄이 max-waiting 만큼 차 있거나 더 오래 기다려야 하면 바로
+// WeatherApiException(RATE_LIMITED) 로 실패한다. 한도가 키 단위이므로 서버가 여러 대면 per-minute 를 나눠서 설정한다.
+@Component
+public class WeatherQuotaLimiter implements MeterBinder {
+
+    private final TokenBucket bucket;
+    private final int maxWaiting;
+    private final Duration maxWait;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public WeatherQuotaLimiter(@Value("${weather.client.quota.per-minute:60}") double perMinute,
+                               @Value("${weather.client.quota.burst:10}") int burst,
+                               @Value("${weather.client.quota.max-waiting:16}") int maxWaiting,
+                               @Value("${weather.client.quota.max-wait:PT2S}") Duration maxWait) {
+        this.bucket = new TokenBucket(burst, perMinute / 60);
+        this.maxWaiting = maxWaiting;
+        this.maxWait = maxWait;
+    }
+
+    // 토큰을 기다려야 하면 스레드를 재우지 않고 그만큼 뒤에 완료되는 future 를 돌려준다.
+    public CompletableFuture<Void> acquireAsync() {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return CompletableFuture.failedFuture(reject("too many requests waiting for weather api quota"));
+        }
+        long waitNanos = bucket.reserve(maxWait.toNanos());
+        if (waitNanos < 0) {
+            waiting.decrementAndGet();
+            return CompletableFuture.failedFuture(reject("weather api quota exhausted"));
+        }
+        if (waitNanos == 0) {
+            waiting.decrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(waiting::decrementAndGet,
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("weather.api.quota.available", bucket, TokenBucket::availableTokens)
+                .description("weather api calls that can start without waiting")
+                .register(registry);
+        Gauge.builder("weather.api.quota.waiting", waiting, AtomicInteger::get)
+                .description("weather api calls waiting for quota")
+                .register(registry);
+        FunctionCounter.builder("weather.api.quota.rejected", rejected, LongAdder::sum)
+                .description("weather api calls rejected by the quota limiter")
+                .register(registry);
+    }
+
+    private WeatherApiException reject(String message) {
+        rejected.increment();
+        return new WeatherApiException(Reason.RATE_LIMITED, message);
+    }
+}
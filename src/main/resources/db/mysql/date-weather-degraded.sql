@@ -0,0 +1,4 @@
+-- 날씨 api 를 못 불렀을 때 대신 저장하는 임시 날씨 표시 (DateWeather.degraded)
+-- 배포 전에 한 번 직접 실행한다. 기존 행은 모두 실제 날씨다.
+
+alter table date_weather add column degraded boolean not null default false, algorithm = instant;
@@ -0,0 +1,14 @@
+-- 보관(cold) 일기 테이블: 오래된 일기는 거의 읽지 않으므로 압축해서 저장한다. (innodb_file_per_table=ON 필요)
+-- 배포 전에 한 번 직접 실행한다.
+-- 컬럼은 diary 와 같고, id 는 diary 에서 받은 그대로 쓴다(auto_increment 아님).
+
+create table if not exists diary_archive (
+    id      int          not null,
+    user_id varchar(64)  not null,
+    date    date,
+    city    varchar(255),
+    text    varchar(255),
+    primary key (id),
+    index idx_diary_archive_user_city_date_id (user_id, city, date, id),
+    index idx_diary_archive_city_date_id (city, date, id)
+) engine = InnoDB row_format = compressed key_block_size = 8;
@@ -0,0 +1,7 @@
+-- 일기 내용 검색(/read/diaries/search)용 FULLTEXT 인덱스
+-- 한국어는 띄어쓰기만으로 단어를 나누기 어려워서 ngram 파서(기본 ngram_token_size=2)를 쓴다.
+-- 배포 전에 한 번 직접 실행한다. 기존 행이 많으면 인덱스 생성에 시간이 걸린다.
+-- 보관된 일기(diary_archive, db/mysql/diary-archive.sql)도 검색하므로 같은 인덱스를 만든다.
+
+alter table diary add fulltext index ft_diary_text (text) with parser ngram;
+alter table diary_archive add fulltext index ft_diary_archive_text (text) with parser ngram;
@@ -0,0 +1,4 @@
+-- 일기 조회용 (date, id) 인덱스 (Diary 의 idx_diary_date_id)
+-- 배포 전에 한 번 직접 실행한다. 기존 행이 많으면 인덱스 생성에 시간이 걸린다.
+
+create index idx_diary_date_id on diary (date, id);
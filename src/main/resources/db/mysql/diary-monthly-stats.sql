@@ -0,0 +1,26 @@
+-- diary_monthly_stats 를 만들고 기존 일기로 한 번 채우는 스크립트
+-- (이후에는 일기 작성/삭제와 매일 재집계로 유지된다)
+
+create table if not exists diary_monthly_stats (
+    user_id           varchar(64)  not null,
+    city              varchar(255) not null,
+    month_start       date         not null,
+    weather           varchar(255) not null,
+    diary_count       bigint       not null,
+    temperature_sum   double       not null,
+    temperature_count bigint       not null,
+    primary key (user_id, city, month_start, weather),
+    index idx_diary_monthly_stats_user_city_month (user_id, city, month_start)
+) engine = InnoDB;
+
+insert into diary_monthly_stats (user_id, city, month_start, weather, diary_count, temperature_sum, temperature_count)
+select d.user_id,
+       d.city,
+       date_sub(d.date, interval dayofmonth(d.date) - 1 day),
+       coalesce(w.weather, 'Unknown'),
+       count(*),
+       coalesce(sum(w.temperature), 0),
+       count(w.temperature)
+from diary d
+         left join date_weather w on w.date = d.date and w.city = d.city
+group by d.user_id, d.city, date_sub(d.date, interval dayofmonth(d.date) - 1 day), coalesce(w.weather, 'Unknown');
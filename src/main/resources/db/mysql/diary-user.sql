@@ -0,0 +1,25 @@
+-- 일기에 사용자(user_id)를 붙이는 스크립트
+-- 배포 전에 한 번 직접 실행한다.
+-- 기존 일기는 주인이 없으므로 'anonymous'(diary.auth.default-user) 의 일기로 옮긴다.
+-- 사용자별로 나누는 것은 파티션 대신 user_id 를 맨 앞에 둔 인덱스로 한다.
+-- (MySQL 파티션은 모든 unique 키에 파티션 컬럼이 있어야 해서 id pk 를 바꿔야 하고, 사용자 수만큼 나눌 수도 없다)
+
+alter table diary add column user_id varchar(64) not null default 'anonymous' after id,
+    algorithm = instant;
+create index idx_diary_user_city_date_id on diary (user_id, city, date, id);
+-- 기존 (city, date, id) 인덱스는 남겨둔다. 도시 전체(모든 사용자)의 월 재집계와 보관 작업이 이 인덱스로 읽는다.
+
+-- 월 통계도 사용자별로 나눈다. 기존 행은 모두 'anonymous' 의 일기 집계다.
+-- diary-monthly-stats.sql 로 새로 만든 테이블이면 이미 user_id 가 있으므로 아무것도 하지 않는다.
+set @monthly_stats_has_user_id = (select count(*) from information_schema.columns
+                                  where table_schema = database()
+                                    and table_name = 'diary_monthly_stats'
+                                    and column_name = 'user_id');
+set @monthly_stats_by_user = if(@monthly_stats_has_user_id = 0,
+    'alter table diary_monthly_stats add column user_id varchar(64) not null default ''anonymous'' first,
+         drop primary key, add primary key (user_id, city, month_start, weather),
+         add index idx_diary_monthly_stats_user_city_month (user_id, city, month_start)',
+    'do 0');
+prepare monthly_stats_by_user from @monthly_stats_by_user;
+execute monthly_stats_by_user;
+deallocate prepare monthly_stats_by_user;
@@ -0,0 +1,22 @@
+-- 조회 응답의 ETag/Last-Modified 를 만드는 (사용자, 날짜, 도시)별 변경 번호 테이블
+-- 배포 전에 한 번 직접 실행한다. 기존 일기로 행을 채우므로 diary-archive.sql 을 먼저 실행한다.
+-- 다시 실행해도 이미 있는 행은 그대로 둔다.
+
+create table if not exists diary_version (
+    user_id     varchar(64)  not null,
+    date        date         not null,
+    city        varchar(255) not null,
+    revision    bigint       not null,
+    modified_at datetime(6),
+    primary key (user_id, date, city),
+    -- 날씨 갱신은 사용자와 상관없이 (도시, 날짜)로 버전을 올린다(bumpAllUsersBetween).
+    index idx_diary_version_city_date (city, date)
+) engine = InnoDB;
+
+-- 일기가 있는 (사용자, 날짜, 도시)마다 행을 만든다. 행이 없으면 수정/삭제가 버전을 올리지 못한다.
+insert into diary_version (user_id, date, city, revision, modified_at)
+select d.user_id, d.date, d.city, 1, now(6)
+from (select user_id, date, city from diary
+      union
+      select user_id, date, city from diary_archive) d
+on duplicate key update diary_version.revision = diary_version.revision;
@@ -0,0 +1,12 @@
+-- 일기 id 생성기(Diary 의 @TableGenerator, DiaryIdGenerator)가 쓰는 테이블
+-- 배포 전에 한 번 직접 실행한다. IDENTITY 로 쌓인 기존 일기가 있으면 그 다음 번호부터 나눠주도록 시작값을 맞춘다.
+
+create table if not exists id_sequence (
+    sequence_name varchar(255) not null,
+    next_val      bigint,
+    primary key (sequence_name)
+) engine = InnoDB;
+
+insert into id_sequence (sequence_name, next_val)
+select 'diary', coalesce(max(id), 0) + 1 from diary
+where not exists (select 1 from id_sequence where sequence_name = 'diary');
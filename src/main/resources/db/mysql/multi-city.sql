@@ -0,0 +1,10 @@
+-- 기존(도시 없는) 스키마를 도시별 스키마로 바꾸는 스크립트
+-- 배포 전에 한 번 직접 실행한다.
+-- 기존 데이터는 모두 서울 날씨였으므로 'seoul' 로 채운다.
+
+alter table date_weather add column city varchar(255) not null default 'seoul';
+alter table date_weather drop primary key, add primary key (date, city);
+
+alter table diary add column city varchar(255) not null default 'seoul';
+alter table diary drop index idx_diary_date_id;
+create index idx_diary_city_date_id on diary (city, date, id);
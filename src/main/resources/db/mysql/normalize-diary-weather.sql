@@ -0,0 +1,27 @@
+-- diary 에 복사해 두던 날씨 컬럼(weather, icon, temperature)을 없애고 date_weather 를 참조하도록 바꾸는 스크립트
+-- 서비스를 멈추지 않고 아래 순서대로 진행한다. (MySQL 8, InnoDB online DDL)
+
+-- 1) 배포 전: 일기에는 있는데 date_weather 에는 없는 (날짜, 도시) 날씨를 일기에 복사된 값으로 채운다.
+--    같은 (날짜, 도시)의 일기들은 같은 날씨를 복사해 갔으므로 아무 행이나 하나 쓰면 된다.
+insert into date_weather (date, city, weather, icon, temperature)
+select d.date, d.city, any_value(d.weather), any_value(d.icon), any_value(d.temperature)
+from diary d
+where not exists (select 1 from date_weather w where w.date = d.date and w.city = d.city)
+group by d.date, d.city
+on duplicate key update date_weather.date = date_weather.date;
+
+-- 2) 배포 전: 새 코드는 날씨 컬럼에 값을 넣지 않으므로 not null 을 푼다. (테이블 복사 없이 진행)
+alter table diary
+    modify weather varchar(255) null,
+    modify icon varchar(255) null,
+    modify temperature double null,
+    algorithm = inplace, lock = none;
+
+-- 3) 새 코드 배포 (조회는 date_weather join 으로 날씨를 채운다)
+
+-- 4) 배포 후 안정되면: 복사해 둔 컬럼을 지운다. 테이블을 다시 만들지만 그동안 읽기/쓰기는 계속 된다.
+alter table diary
+    drop column weather,
+    drop column icon,
+    drop column temperature,
+    algorithm = inplace, lock = none;
@@ -0,0 +1,10 @@
+-- 여러 서버 중 한 곳에서만 스케줄 작업을 돌리기 위한 락 테이블(SchedulerLockService)
+-- 배포 전에 한 번 직접 실행한다.
+
+create table if not exists scheduler_lock (
+    name         varchar(255) not null,
+    locked_until datetime(6),
+    locked_at    datetime(6),
+    locked_by    varchar(255),
+    primary key (name)
+) engine = InnoDB;
@@ -0,0 +1,149 @@
+package zerobase.weather;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// 기존 방식(기본 프로필)과 빠른 시작(AppCDS + fast 프로필의 지연 초기화, -Paot 면 Spring AOT)의 시작 비교
+// ./gradlew startupBenchmark [-Paot] 로 실행 (build/fast-start 를 먼저 만든다)
+// 두 경우 모두 같은 풀어놓은 jar(build/fast-start/weather.jar)를 별도 프로세스로 띄우고
+// - 첫 요청까지 걸린 시간: 프로세스 시작부터 GET /read/diary 가 처음 200 으로 응답할 때까지
+// - RSS: 첫 요청 직후의 VmRSS (/proc, 리눅스에서만)
+// 를 diary.bench.startup-runs 번(기본 5번) 재서 중앙값을 출력한다. DB 는 H2 메모리 DB 를 쓴다.
+@Tag("load")
+class StartupBenchmarkLoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void compareDefaultBootWithFastStart() throws Exception {
+        String fastStartDir = System.getProperty("diary.bench.fast-start-dir");
+        assumeTrue(fastStartDir != null, "run with ./gradlew startupBenchmark");
+        Path dir = Path.of(fastStartDir);
+        boolean aot = Boolean.getBoolean("diary.bench.aot");
+        int runs = Integer.getInteger("diary.bench.startup-runs", 5);
+
+        List<String> fastJvmArgs = new ArrayList<>(List.of("-XX:SharedArchiveFile=app.jsa"));
+        if (aot) {
+            fastJvmArgs.add("-Dspring.aot.enabled=true");
+        }
+        Result baseline = measure(dir, runs, List.of(), List.of());
+        Result fast = measure(dir, runs, fastJvmArgs, List.of("--spring.profiles.active=fast"));
+
+        System.out.printf("default boot : first request %5d ms, rss %4d MB%n", baseline.millis, baseline.rssKb >> 10);
+        System.out.printf("fast start%s: first request %5d ms, rss %4d MB (%.0f%% of default)%n",
+                aot ? "+aot" : "    ", fast.millis, fast.rssKb >> 10, 100.0 * fast.millis / baseline.millis);
+
+        assertThat(baseline.millis).isPositive();
+        assertThat(fast.millis).isPositive();
+    }
+
+    private Result measure(Path dir, int runs, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        long[] millis = new long[runs];
+        long[] rssKb = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.addAll(jvmArgs);
+            // 학습 실행의 클래스패스(weather.jar) 뒤에 H2 만 덧붙인다. (AppCDS 는 뒤에 붙인 항목은 허용한다)
+            command.addAll(List.of("-cp", "weather.jar" + File.pathSeparator + System.getProperty("diary.bench.h2-jar"),
+                    "zerobase.weather.WeatherApplication"));
+            command.addAll(appArgs);
+            command.addAll(List.of(
+                    "--server.port=" + port,
+                    "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database=h2",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--diary.search.mode=like",
+                    "--diary.auth.enabled=false",
+                    "--weather.ingest.backfill-on-startup=false"));
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).directory(dir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(dir.resolve("startup-benchmark.log").toFile())
+                    .start();
+            try {
+                awaitFirstRequest(process, port);
+                millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                rssKb[i] = rssKb(process.pid());
+            } finally {
+                process.destroy();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+        return new Result(median(millis), median(rssKb));
+    }
+
+    private void awaitFirstRequest(Process process, int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + port + "/read/diary?date=2020-01-01")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("application exited with " + process.exitValue()
+                        + ", see build/fast-start/startup-benchmark.log");
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 포트가 열리지 않았다.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("application did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Result(long millis, long rssKb) {
+    }
+}
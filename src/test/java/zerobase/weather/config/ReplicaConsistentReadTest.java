@@ -0,0 +1,101 @@
+package zerobase.weather.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.weather.service.WeatherClient;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// 복제 지연이 서로 다른 복제본 두 개에서 ETag 와 일기가 항상 같은 복제본에서 읽히는지 확인
+// replica-a 는 revision 5 의 "from a", replica-b 는 revision 7 의 "from b" 를 갖고 있다.
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:consistent-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "diary.datasource.replica.urls=" + ReplicaConsistentReadTest.REPLICA_A + "," + ReplicaConsistentReadTest.REPLICA_B,
+        "diary.datasource.replica.health-check-interval=PT1H"
+})
+class ReplicaConsistentReadTest {
+
+    // test 프로필은 인증을 끄고(diary.auth.enabled=false) 모든 요청을 이 사용자의 요청으로 본다.
+    private static final String USER = "anonymous";
+
+    static final String REPLICA_A = "jdbc:h2:mem:consistent-replica-a;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_B = "jdbc:h2:mem:consistent-replica-b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final LocalDate DATE = LocalDate.of(2012, 12, 12);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @BeforeAll
+    static void createReplicas() throws Exception {
+        createReplica(REPLICA_A, "from a", 5);
+        createReplica(REPLICA_B, "from b", 7);
+    }
+
+    @AfterAll
+    static void dropReplicas() throws Exception {
+        for (String url : new String[]{REPLICA_A, REPLICA_B}) {
+            try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("shutdown");
+            }
+        }
+    }
+
+    @Test
+    void readsTagAndBodyFromTheSameReplica() throws Exception {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            MockHttpServletResponse response = mockMvc.perform(get("/read/diary").param("date", DATE.toString()))
+                    .andReturn().getResponse();
+            String body = response.getContentAsString();
+            String etag = response.getHeader("ETag");
+            if (body.contains("from a")) {
+                assertThat(etag).isEqualTo("W/\"5\"");
+                seen.add("a");
+            } else {
+                assertThat(body).contains("from b");
+                assertThat(etag).isEqualTo("W/\"7\"");
+                seen.add("b");
+            }
+        }
+        // 돌아가면서 두 복제본을 모두 썼다.
+        assertThat(seen).containsExactlyInAnyOrder("a", "b");
+    }
+
+    private static void createReplica(String url, String text, int revision) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table diary (id int primary key, text varchar(255), date date, city varchar(255), "
+                    + "user_id varchar(64))");
+            statement.execute("create table diary_archive (id int primary key, text varchar(255), date date, "
+                    + "city varchar(255), user_id varchar(64))");
+            statement.execute("create table date_weather (date date, city varchar(255), weather varchar(255), "
+                    + "icon varchar(255), temperature double, degraded boolean default false, primary key (date, city))");
+            statement.execute("create table diary_version (user_id varchar(64), date date, city varchar(255), "
+                    + "revision bigint, modified_at timestamp, primary key (user_id, date, city))");
+            statement.execute("insert into diary values (1, '" + text + "', date '" + DATE + "', 'seoul', '" + USER + "')");
+            statement.execute("insert into diary_version values ('" + USER + "', date '" + DATE + "', 'seoul', "
+                    + revision + ", timestamp '" + DATE + " 00:00:00')");
+        }
+    }
+}
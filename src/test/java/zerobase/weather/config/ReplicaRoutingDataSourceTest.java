@@ -0,0 +1,124 @@
+package zerobase.weather.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.WeatherClient;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// H2 메모리 DB 두 개(primary, replica)로 라우팅 확인
+// replica 에는 primary 와 다른 일기를 직접 넣어두고, 어느 DB 에서 읽었는지 내용으로 구분한다.
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "diary.datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL + ";IFEXISTS=TRUE",
+        "diary.datasource.replica.health-check-interval=PT1H",
+        "diary.datasource.read-your-writes=PT5S"
+})
+class ReplicaRoutingDataSourceTest {
+
+    // test 프로필은 인증을 끄고(diary.auth.enabled=false) 모든 요청을 이 사용자의 요청으로 본다.
+    private static final String USER = "anonymous";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final LocalDate DATE = LocalDate.of(2011, 11, 11);
+
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @BeforeAll
+    static void createReplica() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table diary (id int primary key, text varchar(255), date date, city varchar(255), "
+                    + "user_id varchar(64))");
+            statement.execute("create table diary_archive (id int primary key, text varchar(255), date date, "
+                    + "city varchar(255), user_id varchar(64))");
+            statement.execute("create table date_weather (date date, city varchar(255), weather varchar(255), "
+                    + "icon varchar(255), temperature double, degraded boolean default false, primary key (date, city))");
+            statement.execute("create table diary_version (user_id varchar(64), date date, city varchar(255), "
+                    + "revision bigint, modified_at timestamp, primary key (user_id, date, city))");
+            statement.execute("insert into diary values (1, 'from replica', date '" + DATE + "', 'seoul', '" + USER + "')");
+        }
+    }
+
+    @AfterAll
+    static void dropReplica() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL + ";IFEXISTS=TRUE", "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        } catch (Exception e) {
+            // 테스트에서 이미 내렸다.
+        }
+    }
+
+    @Test
+    void routesReadsToReplicaAndFallsBackToPrimary() throws Exception {
+        given(weatherClient.fetch(anyString()))
+                .willAnswer(invocation -> new DateWeather(null, null, "Clear", "01d", 280.0));
+
+        // 쓰기는 primary
+        diaryService.createDiary(USER, DATE, "seoul", "from primary");
+
+        // readOnly 트랜잭션은 replica
+        assertThat(diaryService.readDiary(USER, DATE, "seoul")).extracting(Diary::getText).containsExactly("from replica");
+
+        ReplicaRoutingDataSource.forcePrimary(true);
+        try {
+            assertThat(diaryService.readDiary(USER, DATE, "seoul")).extracting(Diary::getText).containsExactly("from primary");
+        } finally {
+            ReplicaRoutingDataSource.forcePrimary(false);
+        }
+
+        // 쓰기 요청 후 받은 쿠키로 읽으면 primary, 쿠키가 없으면 replica
+        Cookie cookie = mockMvc.perform(post("/create/diary").param("date", DATE.plusDays(1).toString())
+                        .contentType("text/plain").content("written"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString()).cookie(cookie))
+                .andExpect(content().string(containsString("from primary")));
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString()))
+                .andExpect(content().string(containsString("from replica")));
+
+        // replica 가 내려가면 상태 확인에서 빠지고 primary 에서 읽는다.
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(replicaRoutingDataSource.healthyReplicaCount()).isZero();
+        assertThat(diaryService.readDiary(USER, DATE, "seoul")).extracting(Diary::getText).containsExactly("from primary");
+    }
+}
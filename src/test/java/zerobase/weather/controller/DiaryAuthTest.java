@@ -0,0 +1,110 @@
+package zerobase.weather.controller;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.service.WeatherClient;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 인증을 켜고 토큰 검증(서명, 만료)과 사용자별 일기 분리 확인
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "diary.auth.enabled=true",
+        "diary.auth.jwt.secret=" + DiaryAuthTest.SECRET
+})
+class DiaryAuthTest {
+
+    static final String SECRET = "ZGlhcnktYXV0aC10ZXN0LXNlY3JldC0zMi1ieXRlcy0wMQ==";
+    private static final String OTHER_SECRET = "b3RoZXItc2VjcmV0LWZvci10ZXN0cy0zMi1ieXRlcy0wMQ==";
+    private static final LocalDate DATE = LocalDate.of(2006, 6, 6);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void rejectsMissingOrInvalidTokens() throws Exception {
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"));
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString())
+                        .header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString())
+                        .header("Authorization", bearer(token("alice", OTHER_SECRET, Duration.ofHours(1)))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString())
+                        .header("Authorization", bearer(token("alice", SECRET, Duration.ofHours(-1)))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void usersOnlySeeTheirOwnDiaries() throws Exception {
+        given(weatherClient.fetch(anyString()))
+                .willAnswer(invocation -> new DateWeather(null, null, "Clear", "01d", 280.0));
+        String alice = bearer(token("alice", SECRET, Duration.ofHours(1)));
+        String bob = bearer(token("bob", SECRET, Duration.ofHours(1)));
+
+        mockMvc.perform(post("/create/diary").param("date", DATE.toString()).header("Authorization", alice)
+                        .contentType("text/plain").content("alice's diary"))
+                .andExpect(status().isOk());
+
+        // 같은 토큰으로 다시 요청하면 캐시에서 검증된다.
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/read/diary").param("date", DATE.toString()).header("Authorization", alice))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(containsString("alice's diary")));
+        }
+        mockMvc.perform(get("/read/diary").param("date", DATE.toString()).header("Authorization", bob))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("alice's diary"))));
+
+        // 다른 사용자의 일기는 지워지지 않는다.
+        mockMvc.perform(delete("/delete/diary").param("date", DATE.toString()).header("Authorization", bob))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0"));
+        mockMvc.perform(get("/read/stats/monthly").param("startMonth", "2006-06").param("endMonth", "2006-06")
+                        .header("Authorization", alice))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"diaryCount\":1")));
+    }
+
+    private static String token(String userId, String secret, Duration validFor) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.builder()
+                .setSubject(userId)
+                .setExpiration(Date.from(Instant.now().plus(validFor)))
+                .signWith(key)
+                .compact();
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
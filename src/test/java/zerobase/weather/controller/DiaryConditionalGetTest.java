@@ -0,0 +1,77 @@
+package zerobase.weather.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.repository.SqlCapture;
+import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.WeatherClient;
+
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "zerobase.weather.repository.SqlCapture")
+class DiaryConditionalGetTest {
+
+    // test 프로필은 인증을 끄고(diary.auth.enabled=false) 모든 요청을 이 사용자의 요청으로 본다.
+    private static final String USER = "anonymous";
+    private static final Pattern READS_DIARY = Pattern.compile("(?i)\\bfrom diary\\b(?!_)");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DiaryService diaryService;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void unchangedDiariesAnswerNotModifiedWithoutReadingThem() throws Exception {
+        given(weatherClient.fetch(anyString()))
+                .willReturn(new DateWeather(LocalDate.now(), "seoul", "Clear", "01d", 282.55));
+        LocalDate date = LocalDate.of(2003, 3, 3);
+        diaryService.createDiary(USER, date, "seoul", "first");
+
+        String etag = mockMvc.perform(get("/read/diary").param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, private"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        SqlCapture.clear();
+        mockMvc.perform(get("/read/diary").param("date", date.toString()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertThat(SqlCapture.statements()).noneMatch(sql -> READS_DIARY.matcher(sql).find());
+
+        // 다른 사용자가 같은 날짜에 일기를 써도 내 ETag 는 그대로다.
+        diaryService.createDiary("other-user", date, "seoul", "someone else's");
+        mockMvc.perform(get("/read/diary").param("date", date.toString()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // 수정하면 ETag 가 바뀌고, 기간 조회에도 반영된다.
+        diaryService.updateDiary(USER, date, "seoul", "edited");
+        mockMvc.perform(get("/read/diary").param("date", date.toString()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+        mockMvc.perform(get("/read/diaries")
+                        .param("startDate", date.minusDays(1).toString())
+                        .param("endDate", date.plusDays(1).toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package zerobase.weather.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.DiaryStatsService;
+import zerobase.weather.service.WeatherClient;
+import zerobase.weather.service.WeatherIngestionService;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "diary.rate-limit.requests-per-second=0.01",
+        "diary.rate-limit.burst=2",
+        "diary.rate-limit.client-header=X-Forwarded-For",
+        "diary.rate-limit.trusted-proxies=1"
+})
+class DiaryRateLimitTest {
+
+    private static final String USER = "anonymous";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private DiaryStatsService diaryStatsService;
+    @Autowired
+    private WeatherIngestionService weatherIngestionService;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void rejectsClientOverItsLimitWithRetryAfter() throws Exception {
+        LocalDate date = LocalDate.of(2007, 7, 7);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/read/diary").param("date", date.toString())
+                            .header("X-Forwarded-For", "192.168.0.7, 10.0.0.1"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/read/diary").param("date", date.toString())
+                        .header("X-Forwarded-For", "10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // 다른 클라이언트는 영향 없음
+        mockMvc.perform(get("/read/diary").param("date", date.toString())
+                        .header("X-Forwarded-For", "10.0.0.2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void spoofedFirstHopDoesNotGetANewBucket() throws Exception {
+        LocalDate date = LocalDate.of(2007, 7, 8);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/read/diary").param("date", date.toString())
+                            .header("X-Forwarded-For", "10.0.1.1"))
+                    .andExpect(status().isOk());
+        }
+        // 클라이언트가 맨 앞 주소를 바꿔 보내도 프록시가 붙인 마지막 주소(10.0.1.1)로 센다.
+        for (String spoofed : new String[]{"1.2.3.4", "5.6.7.8, 9.9.9.9"}) {
+            mockMvc.perform(get("/read/diary").param("date", date.toString())
+                            .header("X-Forwarded-For", spoofed + ", 10.0.1.1"))
+                    .andExpect(status().isTooManyRequests());
+        }
+    }
+
+    @Test
+    void createsDiaryWithLastKnownWeatherWhenWeatherApiIsUnavailable() {
+        given(weatherClient.fetch(anyString()))
+                .willAnswer(invocation -> new DateWeather(null, null, "Rain", "10d", 285.0))
+                .willThrow(new WeatherApiException(WeatherApiException.Reason.RATE_LIMITED, "quota exhausted"))
+                .willAnswer(invocation -> new DateWeather(null, null, "Snow", "13d", 270.0));
+        LocalDate date = LocalDate.of(2007, 8, 1);
+        LocalDate degradedDate = date.plusDays(1);
+        diaryService.createDiary(USER, date, "gwangju", "fetched");
+        double degraded = meterRegistry.counter("weather.degraded").count();
+
+        // 날씨 api 가 막혀도 작성은 성공하고, 대신 쓴 날씨는 임시(degraded) 행으로 저장돼서 읽을 때도 같은 날씨다.
+        diaryService.createDiary(USER, degradedDate, "gwangju", "degraded");
+        assertThat(meterRegistry.counter("weather.degraded").count()).isEqualTo(degraded + 1);
+        assertThat(diaryService.readDiary(USER, degradedDate, "gwangju"))
+                .extracting(Diary::getText, Diary::getWeather)
+                .containsExactly(tuple("degraded", "Rain"));
+        assertThat(dateWeatherRepository.findByDateAndCity(degradedDate, "gwangju"))
+                .hasValueSatisfying(stored -> assertThat(stored.isDegraded()).isTrue());
+        assertThat(weatherIngestionService.missingCities(degradedDate)).contains("gwangju");
+
+        // 같은 날짜의 다음 일기도 api 를 다시 부르지 않고 같은 임시 날씨를 쓴다.
+        diaryService.createDiary(USER, degradedDate, "gwangju", "same day");
+        assertThat(diaryService.readDiary(USER, degradedDate, "gwangju"))
+                .extracting(Diary::getWeather)
+                .containsExactly("Rain", "Rain");
+        assertThat(diaryStatsService.readMonthly(USER, YearMonth.from(degradedDate), YearMonth.from(degradedDate), "gwangju"))
+                .singleElement().satisfies(stats -> assertThat(stats.getWeatherCounts()).containsEntry("Rain", 3L));
+
+        // 수집이 실제 날씨로 덮어쓰면 먼저 쓴 일기와 월 통계에도 보인다.
+        weatherIngestionService.ingest(degradedDate, List.of("gwangju"));
+        assertThat(diaryService.readDiary(USER, degradedDate, "gwangju"))
+                .extracting(Diary::getWeather)
+                .containsExactly("Snow", "Snow");
+        assertThat(dateWeatherRepository.findByDateAndCity(degradedDate, "gwangju"))
+                .hasValueSatisfying(stored -> assertThat(stored.isDegraded()).isFalse());
+        assertThat(diaryStatsService.readMonthly(USER, YearMonth.from(degradedDate), YearMonth.from(degradedDate), "gwangju"))
+                .singleElement().satisfies(stats -> assertThat(stats.getWeatherCounts())
+                        .containsEntry("Rain", 1L).containsEntry("Snow", 2L));
+    }
+}
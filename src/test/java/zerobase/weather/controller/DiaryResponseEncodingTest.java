@@ -0,0 +1,102 @@
+package zerobase.weather.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.WeatherClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+// tomcat 압축(server.compression.*)까지 보려고 실제 포트로 띄워서 요청한다.
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DiaryResponseEncodingTest {
+
+    // test 프로필은 인증을 끄고(diary.auth.enabled=false) 모든 요청을 이 사용자의 요청으로 본다.
+    private static final String USER = "anonymous";
+    private static final LocalDate FIRST_DATE = LocalDate.of(2008, 1, 1);
+    private static final int DAYS = 40;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DiaryService diaryService;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void negotiatesBinaryFormatsAndCompressesLargeResponses() throws Exception {
+        given(weatherClient.fetch(anyString()))
+                .willAnswer(invocation -> new DateWeather(null, null, "Clear", "01d", 282.55));
+        for (int i = 0; i < DAYS; i++) {
+            diaryService.createDiary(USER, FIRST_DATE.plusDays(i), "daegu", "오늘은 날씨가 맑아서 산책을 했다. " + i);
+        }
+        String range = "/read/diaries?city=daegu&startDate=" + FIRST_DATE + "&endDate=" + FIRST_DATE.plusDays(DAYS - 1);
+
+        HttpResponse<byte[]> json = send(range, "application/json", "gzip");
+        assertThat(json.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(json.headers().allValues("Vary")).anyMatch(vary -> vary.contains("Accept"));
+        assertThat(read(JsonMapper.builder().build(), gunzip(json.body()))).hasSize(DAYS);
+
+        HttpResponse<byte[]> plain = send(range, "application/json", "identity");
+        HttpResponse<byte[]> smile = send(range, "application/x-jackson-smile", "identity");
+        assertThat(smile.headers().firstValue("Content-Type")).hasValue("application/x-jackson-smile");
+        List<Map<String, Object>> smileDiaries = read(new SmileMapper(), smile.body());
+        assertThat(smileDiaries).hasSize(DAYS);
+        assertThat(smileDiaries.get(0)).containsEntry("weather", "Clear").containsEntry("date", FIRST_DATE.toString());
+        assertThat(smile.body().length).isLessThan(plain.body().length);
+
+        HttpResponse<byte[]> cbor = send(range, "application/cbor", "identity");
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(read(new CBORMapper(), cbor.body())).hasSize(DAYS);
+
+        // 작은 응답은 압축하지 않는다.
+        HttpResponse<byte[]> single = send("/read/diary?city=daegu&date=" + FIRST_DATE, "application/json", "gzip");
+        assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private HttpResponse<byte[]> send(String path, String accept, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", accept)
+                .header("Accept-Encoding", acceptEncoding)
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> read(ObjectMapper mapper, byte[] body) throws IOException {
+        return mapper.readValue(body, List.class);
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.service.DiaryArchiveService;
+import zerobase.weather.service.DiaryService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// 최근 1년만 diary 에 남기고 나머지를 diary_archive 로 옮겼을 때 diary 크기와 기간 조회 지연시간 비교 (./gradlew loadTest)
+// 크기는 -Ddiary.bench.rows=100000,1000000,10000000 로 바꿀 수 있다.
+// 최근 30일은 diary 만 읽고, 옛 30일은 DiaryService 가 diary 와 diary_archive 를 합쳐서 읽는다.
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/h2/diary-archive;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "diary.archive.enabled=false"
+})
+class DiaryArchiveLoadTest {
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 200;
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private DiaryArchiveService diaryArchiveService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareHotTableBeforeAndAfterArchiving() {
+        long[] sizes = Arrays.stream(System.getProperty("diary.bench.rows", "100000,1000000,10000000").split(","))
+                .mapToLong(size -> Long.parseLong(size.trim()))
+                .toArray();
+        String user = DiarySeeder.USER;
+        String city = DiarySeeder.CITY;
+        LocalDate lastDate = DiarySeeder.FIRST_DATE.plusDays(DiarySeeder.DAYS - 1);
+        LocalDate recentStart = lastDate.minusDays(29);
+        LocalDate oldStart = DiarySeeder.FIRST_DATE.plusDays(DiarySeeder.DAYS / 2);
+        LocalDate before = lastDate.minusDays(364).withDayOfMonth(1);
+
+        for (long rows : sizes) {
+            jdbcTemplate.update("delete from diary_archive");
+            DiarySeeder.seed(jdbcTemplate, rows);
+            jdbcTemplate.execute("analyze");
+            long hotBytes = diskSpaceUsed("diary");
+            long[] recent = measure(() -> diaryRepository.findAllByUserIdAndCityAndDateBetween(
+                    user, city, recentStart, lastDate));
+            long[] old = measure(() -> diaryService.readDiaries(user, oldStart, oldStart.plusDays(29), city));
+
+            long archiveStart = System.nanoTime();
+            long moved = diaryArchiveService.archive(before);
+            long archiveMillis = (System.nanoTime() - archiveStart) / 1_000_000;
+            jdbcTemplate.execute("analyze");
+            long[] recentAfter = measure(() -> diaryRepository.findAllByUserIdAndCityAndDateBetween(
+                    user, city, recentStart, lastDate));
+            long[] oldAfter = measure(() -> diaryService.readDiaries(user, oldStart, oldStart.plusDays(29), city));
+
+            System.out.printf("rows=%d archived=%d in %d ms, diary %d KB -> %d KB, diary_archive %d KB%n",
+                    rows, moved, archiveMillis, hotBytes / 1024, diskSpaceUsed("diary") / 1024,
+                    diskSpaceUsed("diary_archive") / 1024);
+            System.out.printf("rows=%d recent 30d p50=%.3f ms p99=%.3f ms -> p50=%.3f ms p99=%.3f ms%n",
+                    rows, recent[RUNS / 2] / 1e6, recent[RUNS * 99 / 100] / 1e6,
+                    recentAfter[RUNS / 2] / 1e6, recentAfter[RUNS * 99 / 100] / 1e6);
+            System.out.printf("rows=%d old 30d    p50=%.3f ms p99=%.3f ms -> p50=%.3f ms p99=%.3f ms%n",
+                    rows, old[RUNS / 2] / 1e6, old[RUNS * 99 / 100] / 1e6,
+                    oldAfter[RUNS / 2] / 1e6, oldAfter[RUNS * 99 / 100] / 1e6);
+        }
+    }
+
+    private long diskSpaceUsed(String table) {
+        return jdbcTemplate.queryForObject("call disk_space_used('" + table + "')", Long.class);
+    }
+
+    private long[] measure(Supplier<?> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+}
@@ -0,0 +1,77 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import zerobase.weather.domain.Diary;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 기존 수정/삭제 방식(엔티티 조회 후 merge / 한 건씩 delete)과 update/delete 문 하나로 처리하는 방식의
+// sql 개수와 지연시간 비교 (./gradlew loadTest)
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "zerobase.weather.repository.SqlCapture")
+class DiaryBulkWriteLoadTest {
+
+    private static final int ROWS = 365_000; // 하루에 100건씩
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareStatementsAndLatency() {
+        DiarySeeder.seed(jdbcTemplate, ROWS);
+        LocalDate date = DiarySeeder.FIRST_DATE.plusDays(10);
+        String city = DiarySeeder.CITY;
+        String user = DiarySeeder.USER;
+
+        Result legacyUpdate = run(() -> transactionTemplate.executeWithoutResult(status -> {
+            Diary diary = diaryRepository.getFirstByUserIdAndCityAndDate(user, city, date);
+            diary.setText("legacy update");
+            diaryRepository.save(diary);
+        }));
+        Result bulkUpdate = run(() -> transactionTemplate.executeWithoutResult(status ->
+                diaryRepository.updateTextById(
+                        diaryRepository.findFirstIdByUserIdAndCityAndDate(user, city, date), "bulk update")));
+
+        Result legacyDelete = run(() -> transactionTemplate.executeWithoutResult(status ->
+                diaryRepository.deleteAll(diaryRepository.findAllByUserIdAndCityAndDate(user, city, date))));
+        Result bulkDelete = run(() -> diaryRepository.deleteAllByUserIdAndCityAndDate(user, city, date.plusDays(1)));
+        Result bulkRangeDelete = run(() -> diaryRepository.deleteAllByUserIdAndCityAndDateBetween(
+                user, city, date.plusDays(2), date.plusDays(31)));
+
+        System.out.println("updateDiary  legacy: " + legacyUpdate + " / bulk: " + bulkUpdate);
+        System.out.println("deleteDiary  legacy: " + legacyDelete + " / bulk: " + bulkDelete);
+        System.out.println("deleteDiaries(30 days) bulk: " + bulkRangeDelete);
+
+        assertThat(bulkDelete.statements).isEqualTo(1);
+        assertThat(bulkDelete.statements).isLessThan(legacyDelete.statements);
+    }
+
+    private Result run(Runnable action) {
+        SqlCapture.clear();
+        long start = System.nanoTime();
+        action.run();
+        long elapsed = System.nanoTime() - start;
+        return new Result(SqlCapture.statements().size(), elapsed / 1e6);
+    }
+
+    private record Result(int statements, double millis) {
+        @Override
+        public String toString() {
+            return String.format("%d statements, %.2f ms", statements, millis);
+        }
+    }
+}
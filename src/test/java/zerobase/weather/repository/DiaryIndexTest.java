@@ -0,0 +1,98 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// DiaryRepository 의 (user, city, date) 조건 쿼리들이 테이블 전체를 읽지 않고 (user_id, city, date, id) 인덱스를 타는지 확인
+// hibernate 가 실제로 만든 sql 을 잡아서 H2(MySQL 모드) EXPLAIN 으로 실행계획을 본다.
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "zerobase.weather.repository.SqlCapture")
+class DiaryIndexTest {
+
+    static final String DATE_INDEX = "idx_diary_user_city_date_id";
+    private static final Pattern FILTERS_ON_DATE = Pattern.compile("(?i)\\bdate\\s*(=|>|<|between)");
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DiarySeeder.seed(jdbcTemplate, 20_000);
+    }
+
+    @Test
+    void dateFindersUseDateIndex() {
+        LocalDate date = DiarySeeder.FIRST_DATE.plusDays(100);
+        String city = DiarySeeder.CITY;
+        String user = DiarySeeder.USER;
+
+        assertUsesDateIndex(() -> diaryRepository.findAllByUserIdAndCityAndDate(user, city, date));
+        assertUsesDateIndex(() -> diaryRepository.findAllByUserIdAndCityAndDateBetween(
+                user, city, date, date.plusDays(30)));
+        assertUsesDateIndex(() -> diaryRepository.getFirstByUserIdAndCityAndDate(user, city, date));
+        assertUsesDateIndex(() -> diaryRepository.findPageByUserIdAndCityAndDateBetween(
+                user, city, date, date.plusDays(30), date, 0, PageRequest.of(0, 100)));
+        assertUsesDateIndex(() -> diaryRepository.findFirstIdByUserIdAndCityAndDate(user, city, date));
+        assertUsesDateIndex(() -> diaryRepository.updateTextByUserIdAndCityAndDate(user, city, date, "updated"));
+        assertUsesDateIndex(() -> diaryRepository.deleteAllByUserIdAndCityAndDate(user, city, date));
+        assertUsesDateIndex(() -> diaryRepository.deleteAllByUserIdAndCityAndDateBetween(
+                user, city, date, date.plusDays(30)));
+    }
+
+    private void assertUsesDateIndex(Runnable finder) {
+        SqlCapture.clear();
+        finder.run();
+        List<String> statements = SqlCapture.statements().stream()
+                .filter(sql -> FILTERS_ON_DATE.matcher(sql).find())
+                .toList();
+
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            assertThat(explain(sql)).as(sql)
+                    .containsIgnoringCase(DATE_INDEX)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    String explain(String sql) {
+        return jdbcTemplate.execute("explain " + sql, (PreparedStatement ps) -> {
+            ParameterMetaData metaData = ps.getParameterMetaData();
+            for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                int type = metaData.getParameterType(i);
+                if (type == Types.DATE) {
+                    ps.setDate(i, Date.valueOf(DiarySeeder.FIRST_DATE));
+                } else if (type == Types.VARCHAR || type == Types.CHAR) {
+                    ps.setString(i, DiarySeeder.CITY);
+                } else {
+                    ps.setInt(i, 1);
+                }
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1));
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.dto.DiaryDto;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// (date, id) keyset 페이지와 스트림이 같은 날짜의 일기(동점), 페이지 경계, 마지막 페이지, 빈 기간에서
+// 빠지거나 겹치는 행 없이 같은 순서로 읽히는지 확인 (테스트마다 롤백)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class DiaryKeysetPageTest {
+
+    private static final String USER = "keyset-user";
+    private static final String CITY = "seoul";
+    private static final LocalDate D1 = LocalDate.of(2008, 4, 1);
+    private static final LocalDate D2 = LocalDate.of(2008, 4, 2);
+    private static final LocalDate D3 = LocalDate.of(2008, 4, 5);
+
+    // (date, id) 순서. 같은 날짜 안에서는 넣은 순서가 아니라 id 순서다.
+    private static final List<Integer> ORDERED = List.of(900_002, 900_005, 900_009, 900_001, 900_003, 900_004);
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        insert(900_005, USER, D1, CITY);
+        insert(900_002, USER, D1, CITY);
+        insert(900_009, USER, D1, CITY);
+        insert(900_001, USER, D2, CITY);
+        insert(900_004, USER, D3, CITY);
+        insert(900_003, USER, D3, CITY);
+        // 다른 사용자, 다른 도시의 같은 날짜 일기는 섞이지 않는다.
+        insert(900_006, "other-user", D1, CITY);
+        insert(900_007, USER, D1, "busan");
+    }
+
+    @Test
+    void pagesWalkTiesAndBoundariesWithoutGapsOrDuplicates() {
+        for (int size = 1; size <= ORDERED.size() + 1; size++) {
+            assertThat(readAllPages(D1, D3, size)).as("page size %d", size).isEqualTo(ORDERED);
+        }
+    }
+
+    @Test
+    void pageBoundaryInsideTheSameDate() {
+        // 첫 페이지가 D1 의 두번째 일기에서 끝나면 다음 페이지는 D1 의 세번째 일기부터
+        List<DiaryDto> first = page(D1, D3, D1.minusDays(1), Integer.MIN_VALUE, 2);
+        assertThat(first).extracting(DiaryDto::getId).containsExactly(900_002, 900_005);
+        DiaryDto last = first.get(1);
+        assertThat(page(D1, D3, last.getDate(), last.getId(), 2))
+                .extracting(DiaryDto::getId).containsExactly(900_009, 900_001);
+    }
+
+    @Test
+    void lastPageAndEmptyRange() {
+        // 마지막 일기 다음은 빈 페이지
+        assertThat(page(D1, D3, D3, 900_004, 10)).isEmpty();
+        // 남은 일기 수보다 크게 요청하면 남은 만큼만
+        assertThat(page(D1, D3, D2, 900_001, 10)).extracting(DiaryDto::getId).containsExactly(900_003, 900_004);
+        // 일기가 없는 기간
+        LocalDate empty = D2.plusDays(1);
+        assertThat(page(empty, empty.plusDays(1), empty.minusDays(1), Integer.MIN_VALUE, 10)).isEmpty();
+        assertThat(stream(empty, empty.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void streamReturnsTheSameRowsAsPages() {
+        assertThat(stream(D1, D3)).isEqualTo(ORDERED);
+        assertThat(stream(D1, D3)).isEqualTo(readAllPages(D1, D3, 2));
+        // 기간의 양 끝 날짜도 포함한다.
+        assertThat(stream(D2, D2)).containsExactly(900_001);
+        assertThat(readAllPages(D2, D3, 1)).isEqualTo(stream(D2, D3));
+    }
+
+    private List<Integer> readAllPages(LocalDate startDate, LocalDate endDate, int size) {
+        List<Integer> ids = new ArrayList<>();
+        LocalDate afterDate = startDate.minusDays(1);
+        int afterId = Integer.MIN_VALUE;
+        while (true) {
+            List<DiaryDto> page = page(startDate, endDate, afterDate, afterId, size);
+            page.forEach(diary -> ids.add(diary.getId()));
+            if (page.size() < size) {
+                return ids;
+            }
+            DiaryDto last = page.get(page.size() - 1);
+            afterDate = last.getDate();
+            afterId = last.getId();
+        }
+    }
+
+    private List<DiaryDto> page(LocalDate startDate, LocalDate endDate, LocalDate afterDate, int afterId, int size) {
+        return diaryRepository.findPageByUserIdAndCityAndDateBetween(
+                USER, CITY, startDate, endDate, afterDate, afterId, PageRequest.of(0, size));
+    }
+
+    private List<Integer> stream(LocalDate startDate, LocalDate endDate) {
+        try (Stream<DiaryDto> diaries = diaryRepository.streamAllByUserIdAndCityAndDateBetween(
+                USER, CITY, startDate, endDate)) {
+            return diaries.map(DiaryDto::getId).toList();
+        }
+    }
+
+    private void insert(int id, String userId, LocalDate date, String city) {
+        jdbcTemplate.update("insert into diary (id, user_id, date, city, text) values (?, ?, ?, ?, ?)",
+                id, userId, Date.valueOf(date), city, "diary " + id);
+    }
+}
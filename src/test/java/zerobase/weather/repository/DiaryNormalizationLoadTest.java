@@ -0,0 +1,87 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// 날씨를 일기마다 복사하던 기존 테이블(diary_wide)과 date_weather 를 참조하는 지금 테이블의
+// 저장 크기와 기간 조회 지연시간 비교 (./gradlew loadTest, 크기는 -Ddiary.bench.rows 로 변경)
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/h2/diary-normalization;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DiaryNormalizationLoadTest {
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 200;
+
+    private static final String WIDE_SQL = "select id, date, city, text, weather, icon, temperature from diary_wide "
+            + "where user_id = ? and city = ? and date between ? and ? order by date, id";
+    private static final String JOINED_SQL = "select d.id, d.date, d.city, d.text, w.weather, w.icon, w.temperature "
+            + "from diary d left join date_weather w on w.date = d.date and w.city = d.city "
+            + "where d.user_id = ? and d.city = ? and d.date between ? and ? order by d.date, d.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareStorageAndReadLatency() {
+        long rows = Long.parseLong(System.getProperty("diary.bench.rows", "1000000").split(",")[0].trim());
+        DiarySeeder.seed(jdbcTemplate, rows);
+
+        // 기존 스키마: 같은 일기에 날씨 문자열/온도를 복사해서 넣는다.
+        jdbcTemplate.execute("drop table if exists diary_wide");
+        jdbcTemplate.execute("create table diary_wide (id int primary key, user_id varchar(64), date date, "
+                + "city varchar(255), text varchar(255), weather varchar(255), icon varchar(255), "
+                + "temperature double not null)");
+        jdbcTemplate.execute("create index idx_diary_wide_user_city_date_id on diary_wide (user_id, city, date, id)");
+        jdbcTemplate.update("insert into diary_wide "
+                + "select d.id, d.user_id, d.date, d.city, d.text, w.weather, w.icon, w.temperature "
+                + "from diary d join date_weather w on w.date = d.date and w.city = d.city");
+        jdbcTemplate.execute("analyze");
+
+        long wideBytes = diskSpaceUsed("diary_wide");
+        long normalizedBytes = diskSpaceUsed("diary") + diskSpaceUsed("date_weather");
+        System.out.printf("rows=%d storage wide=%d KB normalized=%d KB (%.1f%%)%n",
+                rows, wideBytes / 1024, normalizedBytes / 1024, 100.0 * normalizedBytes / wideBytes);
+
+        LocalDate date = DiarySeeder.FIRST_DATE.plusDays(DiarySeeder.DAYS / 2);
+        for (int days : new int[]{1, 7, 30}) {
+            long[] wide = measure(WIDE_SQL, date, date.plusDays(days - 1));
+            long[] joined = measure(JOINED_SQL, date, date.plusDays(days - 1));
+            System.out.printf("rows=%d range=%dd wide p50=%.3f ms p99=%.3f ms / joined p50=%.3f ms p99=%.3f ms%n",
+                    rows, days, wide[RUNS / 2] / 1e6, wide[RUNS * 99 / 100] / 1e6,
+                    joined[RUNS / 2] / 1e6, joined[RUNS * 99 / 100] / 1e6);
+        }
+        jdbcTemplate.execute("drop table diary_wide");
+    }
+
+    private long diskSpaceUsed(String table) {
+        return jdbcTemplate.queryForObject("call disk_space_used('" + table + "')", Long.class);
+    }
+
+    private long[] measure(String sql, LocalDate startDate, LocalDate endDate) {
+        Runnable query = () -> jdbcTemplate.query(sql, rs -> {
+        }, DiarySeeder.USER, DiarySeeder.CITY, Date.valueOf(startDate), Date.valueOf(endDate));
+        for (int i = 0; i < WARMUP; i++) {
+            query.run();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+}
@@ -0,0 +1,81 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// 10^5 ~ 10^7 건에서 date 조회 쿼리 지연시간 측정 (./gradlew loadTest)
+// 크기는 -Ddiary.bench.rows=100000,1000000,10000000 로 바꿀 수 있고, 메모리 대신 build/ 아래 H2 파일 DB를 쓴다.
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/h2/diary-latency;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DiaryQueryLatencyLoadTest {
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 200;
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reportFinderLatency() {
+        long[] sizes = Arrays.stream(System.getProperty("diary.bench.rows", "100000,1000000,10000000").split(","))
+                .mapToLong(size -> Long.parseLong(size.trim()))
+                .toArray();
+
+        for (long rows : sizes) {
+            long seedStart = System.nanoTime();
+            DiarySeeder.seed(jdbcTemplate, rows);
+            System.out.printf("rows=%d seeded in %d ms%n", rows, (System.nanoTime() - seedStart) / 1_000_000);
+
+            LocalDate date = DiarySeeder.FIRST_DATE.plusDays(DiarySeeder.DAYS / 2);
+            String city = DiarySeeder.CITY;
+            String user = DiarySeeder.USER;
+            Map<String, Supplier<?>> finders = new LinkedHashMap<>();
+            finders.put("findAllByUserIdAndCityAndDate",
+                    () -> diaryRepository.findAllByUserIdAndCityAndDate(user, city, date));
+            finders.put("findAllByUserIdAndCityAndDateBetween(7d)",
+                    () -> diaryRepository.findAllByUserIdAndCityAndDateBetween(user, city, date, date.plusDays(6)));
+            finders.put("getFirstByUserIdAndCityAndDate",
+                    () -> diaryRepository.getFirstByUserIdAndCityAndDate(user, city, date));
+            finders.put("findPageByUserIdAndCityAndDateBetween(100)",
+                    () -> diaryRepository.findPageByUserIdAndCityAndDateBetween(
+                            user, city, date, date.plusDays(30), date.minusDays(1), 0, PageRequest.of(0, 100)));
+
+            finders.forEach((name, finder) -> {
+                long[] nanos = measure(finder);
+                System.out.printf("rows=%d %-36s p50=%.3f ms p99=%.3f ms%n",
+                        rows, name, nanos[RUNS / 2] / 1e6, nanos[RUNS * 99 / 100] / 1e6);
+            });
+        }
+    }
+
+    private long[] measure(Supplier<?> finder) {
+        for (int i = 0; i < WARMUP; i++) {
+            finder.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            finder.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+}
@@ -0,0 +1,32 @@
+package zerobase.weather.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+// 테스트용 대량 일기 데이터 (H2 system_range 로 DB 안에서 바로 생성)
+// id 1..rows 를 FIRST_DATE 부터 DAYS 일에 골고루 나눠 넣고, 그 날짜들의 날씨도 하나씩 넣는다.
+public final class DiarySeeder {
+
+    public static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+    public static final int DAYS = 3650;
+    public static final String CITY = "seoul";
+    public static final String USER = "seeder";
+
+    private DiarySeeder() {
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, long rows) {
+        jdbcTemplate.update("delete from diary");
+        jdbcTemplate.update("delete from date_weather where city = '" + CITY + "'");
+        jdbcTemplate.update("insert into date_weather (date, city, weather, icon, temperature) "
+                + "select dateadd('DAY', x, date '" + FIRST_DATE + "'), '" + CITY + "', 'Clear', '01d', 280.0 "
+                + "from system_range(0, " + (DAYS - 1) + ")");
+        jdbcTemplate.update("insert into diary (id, user_id, date, city, text) "
+                + "select x, '" + USER + "', dateadd('DAY', mod(x, " + DAYS + "), date '" + FIRST_DATE + "'), '"
+                + CITY + "', "
+                + "concat('diary ', x) "
+                + "from system_range(1, " + rows + ")");
+        jdbcTemplate.execute("analyze");
+    }
+}
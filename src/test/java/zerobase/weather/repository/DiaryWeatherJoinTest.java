@@ -0,0 +1,98 @@
+package zerobase.weather.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// 일기는 날씨를 복사하지 않고 (date, city) 로 date_weather 를 참조한다.
+// 날씨 행이 없는 일기(옮기는 중이거나 날씨를 못 가져온 날)는 예외 없이 날씨가 null 로 읽히고,
+// 날씨 행이 있으면 조회 방식(엔티티, 페이지, 스트림)과 상관없이 그 날씨가 붙는지 확인 (테스트마다 롤백)
+@ActiveProfiles("test")
+@SpringBootTest
+@Transactional
+class DiaryWeatherJoinTest {
+
+    private static final String USER = "join-user";
+    // DiarySeeder 가 넣는 seoul 날씨와 겹치지 않는 도시
+    private static final String CITY = "jeju";
+    private static final LocalDate WITHOUT_WEATHER = LocalDate.of(2004, 6, 1);
+    private static final LocalDate WITH_WEATHER = LocalDate.of(2004, 6, 2);
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void diaryWithoutWeatherRowReadsWithNullWeather() {
+        insert(910_001, WITHOUT_WEATHER, "no weather");
+
+        assertThat(diaryRepository.findAllByUserIdAndCityAndDate(USER, CITY, WITHOUT_WEATHER))
+                .extracting(Diary::getText, Diary::getWeather, Diary::getIcon, Diary::getTemperature)
+                .containsExactly(tuple("no weather", null, null, null));
+        assertThat(page(WITHOUT_WEATHER, WITHOUT_WEATHER))
+                .extracting(DiaryDto::getText, DiaryDto::getWeather, DiaryDto::getIcon, DiaryDto::getTemperature)
+                .containsExactly(tuple("no weather", null, null, null));
+        assertThat(stream(WITHOUT_WEATHER, WITHOUT_WEATHER))
+                .extracting(DiaryDto::getWeather, DiaryDto::getTemperature)
+                .containsExactly(tuple(null, null));
+    }
+
+    @Test
+    void diaryWithWeatherRowPicksUpItsFields() {
+        dateWeatherRepository.upsertAll(List.of(new DateWeather(WITH_WEATHER, CITY, "Snow", "13d", 268.5)));
+        insert(910_002, WITHOUT_WEATHER, "no weather");
+        insert(910_003, WITH_WEATHER, "snowy");
+        // 다른 도시의 같은 날짜 날씨는 붙지 않는다.
+        dateWeatherRepository.upsertAll(List.of(new DateWeather(WITHOUT_WEATHER, "busan", "Clear", "01d", 290.0)));
+
+        assertThat(diaryRepository.findAllByUserIdAndCityAndDateBetween(USER, CITY, WITHOUT_WEATHER, WITH_WEATHER))
+                .extracting(Diary::getText, Diary::getWeather, Diary::getIcon, Diary::getTemperature)
+                .containsExactlyInAnyOrder(tuple("no weather", null, null, null), tuple("snowy", "Snow", "13d", 268.5));
+        assertThat(page(WITHOUT_WEATHER, WITH_WEATHER))
+                .extracting(DiaryDto::getText, DiaryDto::getWeather, DiaryDto::getIcon, DiaryDto::getTemperature)
+                .containsExactly(tuple("no weather", null, null, null), tuple("snowy", "Snow", "13d", 268.5));
+        assertThat(stream(WITHOUT_WEATHER, WITH_WEATHER))
+                .extracting(DiaryDto::getWeather)
+                .containsExactly(null, "Snow");
+
+        // 날씨가 나중에 들어오면 이미 쓴 일기에도 보인다.
+        dateWeatherRepository.upsertAll(List.of(new DateWeather(WITHOUT_WEATHER, CITY, "Rain", "10d", 281.0)));
+        assertThat(page(WITHOUT_WEATHER, WITHOUT_WEATHER))
+                .extracting(DiaryDto::getWeather).containsExactly("Rain");
+    }
+
+    private List<DiaryDto> page(LocalDate startDate, LocalDate endDate) {
+        return diaryRepository.findPageByUserIdAndCityAndDateBetween(USER, CITY, startDate, endDate,
+                startDate.minusDays(1), Integer.MIN_VALUE, PageRequest.of(0, 10));
+    }
+
+    private List<DiaryDto> stream(LocalDate startDate, LocalDate endDate) {
+        try (Stream<DiaryDto> diaries = diaryRepository.streamAllByUserIdAndCityAndDateBetween(
+                USER, CITY, startDate, endDate)) {
+            return diaries.toList();
+        }
+    }
+
+    private void insert(int id, LocalDate date, String text) {
+        jdbcTemplate.update("insert into diary (id, user_id, date, city, text) values (?, ?, ?, ?, ?)",
+                id, USER, Date.valueOf(date), CITY, text);
+    }
+}
@@ -0,0 +1,27 @@
+package zerobase.weather.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// hibernate 가 실행하는 sql 을 모아두는 테스트용 StatementInspector
+// spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록해서 사용
+public class SqlCapture implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+}
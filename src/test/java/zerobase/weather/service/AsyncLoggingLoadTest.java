@@ -0,0 +1,157 @@
+package zerobase.weather.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+// 로그 설정에 따른 일기 작성 지연시간(p50/p99)과 처리량 비교 (./gradlew loadTest)
+// - sync + sql: 기존 방식 (파일에 바로 쓰기, sql 도 매번 출력)
+// - async + sql: 비동기 큐를 거쳐서 쓰기, sql 출력은 그대로
+// - async: 비동기 + sql 은 찍지 않음 (지금 설정)
+// - off: 로그를 아예 안 쓸 때 (기준)
+// 테스트 동안만 root 로거의 appender 를 바꿔 끼우고, 로그는 build/logs/ 아래에 쓴다.
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=8")
+class AsyncLoggingLoadTest {
+
+    private static final String USER = "load-user";
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 4000;
+
+    @Autowired
+    private DiaryService diaryService;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    private final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    private final Logger sql = loggerContext.getLogger("org.hibernate.SQL");
+
+    @Test
+    void compareCreateLatencyByLoggingSetup() throws Exception {
+        given(weatherClient.fetch(anyString()))
+                .willAnswer(invocation -> new DateWeather(null, null, "Clear", "01d", 282.55));
+        // 워밍업
+        run("warmup", null, Level.INFO, LocalDate.of(1990, 1, 1));
+
+        List<Appender<ILoggingEvent>> original = detachAll();
+        Level originalSqlLevel = sql.getLevel();
+        try {
+            run("sync + sql", fileAppender("sync"), Level.DEBUG, LocalDate.of(1991, 1, 1));
+            run("async + sql", asyncAppender(fileAppender("async-sql")), Level.DEBUG, LocalDate.of(1992, 1, 1));
+            run("async", asyncAppender(fileAppender("async")), Level.INFO, LocalDate.of(1993, 1, 1));
+            run("off", null, Level.INFO, LocalDate.of(1994, 1, 1));
+        } finally {
+            sql.setLevel(originalSqlLevel);
+            original.forEach(root::addAppender);
+        }
+    }
+
+    private void run(String name, Appender<ILoggingEvent> appender, Level sqlLevel, LocalDate firstDate)
+            throws Exception {
+        sql.setLevel(sqlLevel);
+        if (appender != null) {
+            root.addAppender(appender);
+        }
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    diaryService.createDiary(USER, firstDate.plusDays(index % 365), "seoul", "logging load test " + index);
+                    latencies[index] = System.nanoTime() - begin;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (appender != null) {
+            root.detachAppender(appender);
+            // 비동기면 큐에 남은 로그를 파일에 다 쓰고 멈춘다(측정 시간 밖).
+            appender.stop();
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-12s p50=%7.3f ms p99=%7.3f ms max=%8.3f ms %7.0f diaries/s%n", name,
+                millis(latencies[REQUESTS / 2]), millis(latencies[REQUESTS * 99 / 100]),
+                millis(latencies[REQUESTS - 1]), REQUESTS / seconds);
+        assertThat(latencies[0]).isPositive();
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(String name) {
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(loggerContext);
+        appender.setName("bench-" + name);
+        appender.setFile("build/logs/logging-load-" + name + ".log");
+        appender.setAppend(false);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    // logback-spring.xml 의 ASYNC_FILE 과 같은 설정
+    private AsyncAppender asyncAppender(Appender<ILoggingEvent> delegate) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(loggerContext);
+        appender.setName(delegate.getName() + "-async");
+        appender.setQueueSize(8192);
+        appender.setDiscardingThreshold(1638);
+        appender.setNeverBlock(false);
+        appender.setIncludeCallerData(false);
+        appender.setMaxFlushTime(2000);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+
+    private List<Appender<ILoggingEvent>> detachAll() {
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            appenders.add(it.next());
+        }
+        appenders.forEach(root::detachAppender);
+        return appenders;
+    }
+
+    private static double millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0;
+    }
+}
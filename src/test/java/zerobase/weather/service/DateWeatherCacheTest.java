@@ -0,0 +1,109 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.repository.DateWeatherRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+// 같은 (날짜, 도시)의 동시 miss 는 로딩 한 번으로 끝나고(single-flight), 실패는 기다리던 요청에도 전달되고 캐시에 남지 않는다.
+class DateWeatherCacheTest {
+
+    private static final int THREADS = 16;
+    private static final LocalDate DATE = LocalDate.of(2009, 9, 9);
+    private static final String CITY = "seoul";
+
+    private final DateWeatherRepository dateWeatherRepository = mock(DateWeatherRepository.class);
+    private final DateWeatherCache cache = new DateWeatherCache(dateWeatherRepository, 100, Duration.ofHours(1));
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesLoadOnceAndShareTheResult() throws Exception {
+        given(dateWeatherRepository.findById(any())).willReturn(Optional.empty());
+        AtomicInteger loads = new AtomicInteger();
+        // 나머지 요청이 모두 기다리기 시작할 때까지 로딩을 끝내지 않는다.
+        Supplier<DateWeather> loader = () -> {
+            loads.incrementAndGet();
+            awaitWaiters(THREADS - 1);
+            return new DateWeather(null, null, "Clear", "01d", 280.0);
+        };
+
+        List<Future<DateWeather>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> cache.get(DATE, CITY, loader)));
+        }
+        DateWeather first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<DateWeather> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.getDate()).isEqualTo(DATE);
+        WeatherCacheStats stats = cache.stats();
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getWaitCount()).isEqualTo(THREADS - 1);
+        assertThat(stats.getHitCount()).isZero();
+        assertThat(stats.getLoadCount()).isEqualTo(1);
+
+        // 로딩이 끝난 뒤에는 hit
+        assertThat(cache.get(DATE, CITY, loader)).isSameAs(first);
+        assertThat(cache.stats().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoadReachesWaitersAndIsNotCached() throws Exception {
+        given(dateWeatherRepository.findById(any())).willReturn(Optional.empty());
+        AtomicInteger loads = new AtomicInteger();
+        // RuntimeException 이 아닌 Error 여도 기다리던 요청이 멈추지 않고 같이 실패해야 한다.
+        Supplier<DateWeather> failing = () -> {
+            loads.incrementAndGet();
+            awaitWaiters(THREADS - 1);
+            throw new AssertionError("loader failed");
+        };
+
+        List<Future<DateWeather>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> cache.get(DATE, CITY, failing)));
+        }
+        for (Future<DateWeather> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasRootCauseInstanceOf(AssertionError.class);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getLoadFailureCount()).isEqualTo(1);
+
+        // 실패한 로딩은 캐시에서 빠져서 다음 요청이 다시 로딩한다.
+        DateWeather loaded = cache.get(DATE, CITY, () -> new DateWeather(null, null, "Rain", "10d", 270.0));
+        assertThat(loaded.getWeather()).isEqualTo("Rain");
+        assertThat(cache.stats().getMissCount()).isEqualTo(2);
+    }
+
+    private void awaitWaiters(int waiters) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().getWaitCount() < waiters && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.ArchivedDiary;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryDto;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.DiaryArchiveRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 오래된 일기를 diary_archive 로 옮긴 뒤에도 조회/수정/삭제/통계가 그대로인지 확인
+@ActiveProfiles("test")
+@SpringBootTest
+class DiaryArchiveServiceTest {
+
+    private static final String USER = "archive-user";
+    private static final String CITY = "seoul";
+    private static final LocalDate JAN1 = LocalDate.of(1990, 1, 1);
+    private static final LocalDate JAN2 = LocalDate.of(1990, 1, 2);
+    private static final LocalDate FEB1 = LocalDate.of(1991, 2, 1);
+
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private DiaryArchiveService diaryArchiveService;
+    @Autowired
+    private DiaryStatsService diaryStatsService;
+    @Autowired
+    private DiaryArchiveRepository diaryArchiveRepository;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void readsAndWritesAcrossHotAndArchivedDiaries() {
+        dateWeatherRepository.upsertAll(List.of(
+                new DateWeather(JAN1, CITY, "Clear", "01d", 280.0),
+                new DateWeather(JAN2, CITY, "Rain", "10d", 270.0),
+                new DateWeather(FEB1, CITY, "Snow", "13d", 260.0)));
+        diaryService.createDiary(USER, JAN1, CITY, "a");
+        diaryService.createDiary(USER, JAN2, CITY, "b");
+
+        // 1991-01-01 이전 일기만 옮긴다. 옮긴 뒤에 쓴 옛 날짜 일기는 diary 에 있다.
+        assertThat(diaryArchiveService.archive(LocalDate.of(1991, 1, 1))).isEqualTo(2);
+        diaryService.createDiary(USER, JAN1, CITY, "c");
+        diaryService.createDiary(USER, FEB1, CITY, "d");
+        assertThat(diaryArchiveRepository.findAllByUserIdAndCityAndDateBetween(USER, CITY, JAN1, FEB1))
+                .extracting(ArchivedDiary::getText).containsExactly("a", "b");
+
+        assertThat(diaryService.readDiaries(USER, JAN1, FEB1, CITY))
+                .extracting(Diary::getText).containsExactly("a", "c", "b", "d");
+        assertThat(diaryService.readDiary(USER, JAN1, CITY))
+                .extracting(Diary::getText).containsExactly("a", "c");
+
+        // 페이지와 스트림도 (date, id) 순서로 합쳐진다.
+        DiaryPage first = diaryService.readDiaryPage(USER, JAN1, FEB1, CITY, null, null, 3);
+        assertThat(first.getDiaries()).extracting(DiaryDto::getText).containsExactly("a", "c", "b");
+        DiaryPage second = diaryService.readDiaryPage(USER, JAN1, FEB1, CITY,
+                first.getNextDate(), first.getNextId(), 3);
+        assertThat(second.getDiaries()).extracting(DiaryDto::getText).containsExactly("d");
+        assertThat(second.getNextId()).isNull();
+        List<String> streamed = new ArrayList<>();
+        diaryService.streamDiaries(USER, JAN1, FEB1, CITY, diary -> streamed.add(diary.getText()));
+        assertThat(streamed).containsExactly("a", "c", "b", "d");
+
+        // 첫번째(보관된) 일기를 고치고, 보관된 일기도 삭제된다.
+        assertThat(diaryService.updateDiary(USER, JAN1, CITY, "a2")).isEqualTo(1);
+        assertThat(diaryService.readDiary(USER, JAN1, CITY)).extracting(Diary::getText).containsExactly("a2", "c");
+        assertThat(diaryService.deleteDiary(USER, JAN1, CITY)).isEqualTo(2);
+
+        // 통계 재집계(기간 삭제)는 보관된 일기도 센다.
+        assertThat(diaryStatsService.readMonthly(USER, YearMonth.of(1990, 1), YearMonth.of(1990, 1), CITY))
+                .singleElement().satisfies(stats -> assertThat(stats.getDiaryCount()).isEqualTo(1));
+        // 1990-01-11 ~ 1991-02-01 삭제는 hot 일기 d 만 지우고 1990-01 부터 다시 집계한다(보관된 b 가 남는다).
+        assertThat(diaryService.deleteDiaries(USER, JAN1.plusDays(10), FEB1, CITY)).isEqualTo(1);
+        assertThat(diaryStatsService.readMonthly(USER, YearMonth.of(1990, 1), YearMonth.of(1990, 1), CITY))
+                .singleElement().satisfies(stats -> assertThat(stats.getDiaryCount()).isEqualTo(1));
+        assertThat(diaryService.deleteDiaries(USER, JAN1, FEB1, CITY)).isEqualTo(1);
+        assertThat(diaryService.readDiaries(USER, JAN1, FEB1, CITY)).isEmpty();
+        assertThat(diaryStatsService.readYearly(USER, 1990, 1991, CITY)).isEmpty();
+    }
+}
@@ -0,0 +1,152 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.dto.DiaryImportResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+// 일괄 가져오기/내보내기 처리량과 힙 사용량 측정 (./gradlew loadTest)
+// 파일을 만들지 않고 행을 그때그때 만들어 내는 스트림으로 가져오고, 내보낸 바이트는 세기만 한다.
+// 건수는 -Ddiary.bench.import-rows 로 바꿀 수 있고(기본 100만 건, 약 40MB), 메모리 대신 build/ 아래 H2 파일 DB를 쓴다.
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/h2/diary-bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DiaryBulkLoadTest {
+
+    private static final String USER = "load-user";
+    private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+    private static final int DAYS = 3650;
+
+    @Autowired
+    private DiaryBulkService diaryBulkService;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void reportImportAndExportThroughput() throws Exception {
+        given(weatherClient.fetch(anyString()))
+                .willAnswer(invocation -> new DateWeather(null, null, "Clear", "01d", 280.0));
+        long rows = Long.getLong("diary.bench.import-rows", 1_000_000);
+
+        HeapSampler heap = new HeapSampler();
+        heap.start();
+        DiaryImportResult result = diaryBulkService.importDiaries(USER, new GeneratedCsv(rows), DiaryBulkService.Format.CSV);
+        long importPeak = heap.resetPeak();
+        System.out.printf("import rows=%d %d ms %.0f diaries/s peak heap %d MB%n",
+                result.getImported(), result.getElapsedMillis(), result.getDiariesPerSecond(), importPeak >> 20);
+
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        long exported = diaryBulkService.exportDiaries(USER, FIRST_DATE, FIRST_DATE.plusDays(DAYS), "seoul",
+                DiaryBulkService.Format.CSV, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long exportPeak = heap.resetPeak();
+        heap.interrupt();
+        System.out.printf("export rows=%d %.0f ms %.0f diaries/s %.1f MB/s peak heap %d MB%n",
+                exported, seconds * 1000, exported / seconds, out.count.get() / seconds / (1 << 20), exportPeak >> 20);
+
+        assertThat(result.getImported()).isEqualTo(rows);
+        assertThat(exported).isEqualTo(rows);
+    }
+
+    // "date,city,text" 헤더 뒤에 rows 개의 행을 필요할 때마다 만들어 낸다.
+    private static class GeneratedCsv extends InputStream {
+        private final long rows;
+        private long next;
+        private byte[] line = "date,city,text\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        GeneratedCsv(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == rows) {
+                    return -1;
+                }
+                next++;
+                line = (FIRST_DATE.plusDays(next % DAYS) + ",seoul,\"diary " + next + ", imported\"\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int first = read();
+            if (first == -1) {
+                return -1;
+            }
+            buffer[offset] = (byte) first;
+            int copied = Math.min(length - 1, line.length - position);
+            System.arraycopy(line, position, buffer, offset + 1, copied);
+            position += copied;
+            return copied + 1;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public void write(int b) {
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count.addAndGet(len);
+        }
+    }
+
+    // 50ms 마다 힙 사용량을 보고 최대값을 기록한다.
+    private static class HeapSampler extends Thread {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peak = new AtomicLong();
+
+        HeapSampler() {
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long resetPeak() {
+            return peak.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryImportResult;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.repository.DateWeatherRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "diary.bulk.chunk-size=2")
+class DiaryBulkServiceTest {
+
+    private static final String USER = "bulk-user";
+    private static final String CITY = "incheon";
+
+    @Autowired
+    private DiaryBulkService diaryBulkService;
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void importsCsvAndNdjsonWithStoredWeatherOfPastDates() {
+        LocalDate date = LocalDate.of(2007, 5, 1);
+        dateWeatherRepository.upsertAll(List.of(new DateWeather(date, CITY, "Clear", "01d", 280.0)));
+
+        String csv = "date,city,text\r\n"
+                + "2007-05-01,incheon,first\r\n"
+                + "2007-05-01,INCHEON,\"with, comma and \"\"quote\"\"\nand newline\"\r\n"
+                + "not-a-date,incheon,broken\r\n"
+                + "2007-05-01,tokyo,unknown city\r\n"
+                + "2007-05-02,incheon,second day\r\n";
+        DiaryImportResult result = importDiaries(csv, DiaryBulkService.Format.CSV);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getSkipped()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(2).first().asString().startsWith("line 5:");
+        // 지난 날짜는 저장된 날씨만 쓰고 api 는 부르지 않는다. 날씨가 없는 2007-05-02 는 날씨 없이 저장한다.
+        assertThat(result.getWithoutWeather()).isEqualTo(1);
+        verify(weatherClient, never()).fetch(anyString());
+        assertThat(diaryService.readDiary(USER, date, CITY)).extracting(Diary::getText, Diary::getWeather)
+                .containsExactlyInAnyOrder(tuple("first", "Clear"),
+                        tuple("with, comma and \"quote\"\nand newline", "Clear"));
+        assertThat(diaryService.readDiary(USER, date.plusDays(1), CITY)).extracting(Diary::getWeather)
+                .containsExactly((String) null);
+
+        String ndjson = "{\"date\":\"2007-05-03\",\"city\":\"incheon\",\"text\":\"json\"}\n"
+                + "\n"
+                + "{broken\n"
+                + "{\"date\":\"2007-05-03\",\"text\":\"default city\",\"weather\":\"ignored\"}\n";
+        DiaryImportResult ndjsonResult = importDiaries(ndjson, DiaryBulkService.Format.NDJSON);
+        assertThat(ndjsonResult.getImported()).isEqualTo(2);
+        assertThat(ndjsonResult.getSkipped()).isEqualTo(1);
+    }
+
+    @Test
+    void exportedCsvCanBeImportedAgain() throws Exception {
+        given(weatherClient.fetch(anyString())).willAnswer(invocation -> new DateWeather(null, null, "Rain", "10d", 275.0));
+        LocalDate first = LocalDate.of(2008, 1, 1);
+        diaryService.createDiary(USER, first, CITY, "plain");
+        diaryService.createDiary(USER, first.plusDays(1), CITY, "multi\nline, \"quoted\"");
+        diaryService.createDiary(USER, first.plusDays(2), CITY, "third");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = diaryBulkService.exportDiaries(USER, first, first.plusDays(2), CITY, DiaryBulkService.Format.CSV, out);
+        assertThat(exported).isEqualTo(3);
+
+        diaryService.deleteDiaries(USER, first, first.plusDays(2), CITY);
+        DiaryImportResult result = importDiaries(out.toString(StandardCharsets.UTF_8), DiaryBulkService.Format.CSV);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getSkipped()).isZero();
+        assertThat(diaryService.readDiaries(USER, first, first.plusDays(2), CITY)).extracting(Diary::getText)
+                .containsExactlyInAnyOrder("plain", "multi\nline, \"quoted\"", "third");
+    }
+
+    @Test
+    void callsTheApiOnlyForTodayAndKeepsImportingWhenItFails() {
+        given(weatherClient.fetch(anyString())).willThrow(new WeatherApiException(WeatherApiException.Reason.IO_ERROR, "down"));
+        LocalDate today = LocalDate.now();
+        DiaryImportResult result = importDiaries("date,city,text\n" + today + ",incheon,a\n" + today + ",incheon,b\n"
+                + "2009-01-01,incheon,c\n", DiaryBulkService.Format.CSV);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getWithoutWeather()).isEqualTo(3);
+        // 오늘 날짜만, (날짜, 도시)마다 한 번
+        verify(weatherClient, times(1)).fetch(CITY);
+    }
+
+    private DiaryImportResult importDiaries(String body, DiaryBulkService.Format format) {
+        return diaryBulkService.importDiaries(USER,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
@@ -0,0 +1,118 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.DiaryRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+// 날씨 api 응답을 기다리는 동안 트랜잭션을 잡고 있을 때(기존 방식)와
+// 트랜잭션 밖에서 날씨를 먼저 구하는 2단계 저장의 처리량 비교
+// 커넥션 풀을 작게 잡고, 매 요청이 캐시 miss 가 나도록 날짜를 모두 다르게 준다.
+// 같은 날짜에 여러 사용자가 동시에 쓸 때 공유 행 락으로 줄 서지 않는지도 본다.
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=4")
+class DiaryCreateLoadTest {
+
+    private static final String USER = "load-user";
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 256;
+    private static final long API_LATENCY_MILLIS = 100;
+
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private DiaryRepository diaryRepository;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void twoPhaseCreateOutperformsSerializableCreate() throws Exception {
+        given(weatherClient.fetch(anyString())).willAnswer(invocation -> {
+            Thread.sleep(API_LATENCY_MILLIS);
+            return new DateWeather(LocalDate.now(), "seoul", "Clear", "01d", 282.55);
+        });
+
+        // 기존 createDiary: SERIALIZABLE 트랜잭션 안에서 api 호출 후 insert
+        TransactionTemplate serializable = new TransactionTemplate(transactionManager);
+        serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        LocalDate legacyStart = LocalDate.of(2000, 1, 1);
+        double legacy = run(i -> serializable.executeWithoutResult(status -> {
+            Diary diary = new Diary();
+            diary.setUserId(USER);
+            diary.setDateWeather(weatherClient.fetch("seoul"));
+            diary.setText("load test");
+            diary.setDate(legacyStart.plusDays(i));
+            diaryRepository.save(diary);
+        }));
+
+        LocalDate twoPhaseStart = LocalDate.of(2010, 1, 1);
+        double twoPhase = run(i -> diaryService.createDiary(USER, twoPhaseStart.plusDays(i), "seoul", "load test"));
+
+        System.out.printf("createDiary throughput: serializable=%.1f ops/s, two-phase=%.1f ops/s%n", legacy, twoPhase);
+        assertThat(twoPhase).isGreaterThan(legacy);
+    }
+
+    // 여러 사용자가 같은 날짜, 같은 도시에 동시에 일기를 써도 버전/통계 행을 같이 잡지 않으므로
+    // 날짜가 모두 다를 때와 처리량이 비슷해야 한다. (날씨는 DB 에 있어서 api 를 부르지 않는다)
+    @Test
+    void usersWritingTheSameDayDoNotSerialize() throws Exception {
+        LocalDate sameDay = LocalDate.of(2020, 2, 2);
+        LocalDate spreadStart = LocalDate.of(2021, 1, 1);
+        List<DateWeather> weathers = new ArrayList<>();
+        weathers.add(new DateWeather(sameDay, "seoul", "Clear", "01d", 282.55));
+        for (int i = 0; i < REQUESTS; i++) {
+            weathers.add(new DateWeather(spreadStart.plusDays(i), "seoul", "Clear", "01d", 282.55));
+        }
+        dateWeatherRepository.upsertAll(weathers);
+
+        double spread = run(i -> diaryService.createDiary("spread-user-" + i, spreadStart.plusDays(i), "seoul", "load test"));
+        double same = run(i -> diaryService.createDiary("same-day-user-" + i, sameDay, "seoul", "load test"));
+
+        System.out.printf("createDiary throughput: different days=%.1f ops/s, same day=%.1f ops/s%n", spread, same);
+        assertThat(same).isGreaterThan(spread * 0.7);
+    }
+
+    private double run(IntConsumer create) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                futures.add(executor.submit(() -> create.accept(request)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return REQUESTS / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
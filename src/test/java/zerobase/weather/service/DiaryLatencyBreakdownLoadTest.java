@@ -0,0 +1,114 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 스텁 날씨 서버(지연 50ms)를 두고 일기 작성/조회 요청을 보낸 뒤
+// 메트릭으로 요청 시간이 어디서(DB / 날씨 api) 쓰였는지 나눠서 출력한다. (./gradlew loadTest)
+@Tag("load")
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.hikari.maximum-pool-size=4",
+                // 한 클라이언트에서 부하를 주므로 요청 한도와 날씨 api 호출 한도가 먼저 막지 않게
+                "diary.rate-limit.enabled=false",
+                "weather.client.quota.per-minute=100000000",
+                "weather.client.quota.burst=100000"
+        })
+class DiaryLatencyBreakdownLoadTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 400;
+    private static final WeatherStubServer stubServer = startStubServer();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static WeatherStubServer startStubServer() {
+        try {
+            return new WeatherStubServer().latency(Duration.ofMillis(50));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void weatherApi(DynamicPropertyRegistry registry) {
+        registry.add("openweathermap.url", stubServer::url);
+    }
+
+    @AfterAll
+    static void stopStubServer() {
+        stubServer.close();
+    }
+
+    @Test
+    void reportLatencyBreakdown() throws Exception {
+        // 날짜를 절반만 겹치게 해서 캐시 hit/miss 가 섞이도록
+        run(i -> restTemplate.postForEntity("/create/diary?date={date}&city=seoul", "load test", Integer.class,
+                LocalDate.of(2000, 1, 1).plusDays(i / 2)));
+        run(i -> restTemplate.getForEntity("/read/diaries?startDate={start}&endDate={end}&city=seoul", String.class,
+                LocalDate.of(2000, 1, 1), LocalDate.of(2000, 1, 1).plusDays(30)));
+
+        print("http.server.requests", "uri");
+        print("diary.service", "method");
+        print("spring.data.repository.invocations", "method");
+        print("weather.api.requests", "outcome");
+        print("hikaricp.connections.acquire", null);
+        System.out.printf("weather.cache.hit.ratio = %.3f%n", meterRegistry.get("weather.cache.hit.ratio").gauge().value());
+
+        assertThat(meterRegistry.get("weather.api.requests").timers()).isNotEmpty();
+    }
+
+    private void print(String name, String tag) {
+        for (Timer timer : meterRegistry.find(name).timers()) {
+            System.out.printf("%-36s %-28s count=%6d total=%9.1f ms mean=%7.3f ms max=%8.3f ms%n",
+                    name, tag == null ? "" : timer.getId().getTag(tag), timer.count(),
+                    timer.totalTime(TimeUnit.MILLISECONDS), timer.mean(TimeUnit.MILLISECONDS),
+                    timer.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void run(IntConsumer request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> request.accept(index)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
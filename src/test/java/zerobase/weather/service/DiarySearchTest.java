@@ -0,0 +1,103 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.dto.DiarySearchHit;
+import zerobase.weather.dto.DiarySearchPage;
+import zerobase.weather.repository.DateWeatherRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// diary.search.mode=like (H2) 로 검색 조건, 정렬, 페이지, 수정/삭제 반영, 보관된 일기 검색 확인
+@ActiveProfiles("test")
+@SpringBootTest
+class DiarySearchTest {
+
+    private static final String USER = "search-user";
+    private static final String CITY = "busan";
+
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private DiaryArchiveService diaryArchiveService;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void searchesTextWithFiltersRankingAndPaging() {
+        LocalDate sunny = LocalDate.of(2006, 3, 1);
+        LocalDate rainy = LocalDate.of(2006, 3, 2);
+        dateWeatherRepository.upsertAll(List.of(
+                new DateWeather(sunny, CITY, "Clear", "01d", 285.0),
+                new DateWeather(rainy, CITY, "Rain", "10d", 281.0)));
+
+        int walk = diaryService.createDiary(USER, sunny, CITY, "공원 산책");
+        int walkTwice = diaryService.createDiary(USER, rainy, CITY, "비 오는 공원 산책, 산책 또 산책");
+        diaryService.createDiary(USER, rainy, CITY, "집에서 독서");
+
+        // 모든 단어를 포함해야 하고, 많이 나올수록 앞에
+        assertThat(search("산책 공원", null, 0, 10).getHits())
+                .extracting(DiarySearchHit::getId).containsExactly(walkTwice, walk);
+        assertThat(search("산책 바다", null, 0, 10).getHits()).isEmpty();
+
+        assertThat(search("산책", "Clear", 0, 10).getHits())
+                .singleElement().satisfies(hit -> {
+                    assertThat(hit.getId()).isEqualTo(walk);
+                    assertThat(hit.getWeather()).isEqualTo("Clear");
+                });
+        assertThat(diaryService.searchDiaries(USER, "산책", sunny, sunny, null, CITY, 0, 10).getHits())
+                .extracting(DiarySearchHit::getId).containsExactly(walk);
+
+        DiarySearchPage first = search("산책", null, 0, 1);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getHits()).extracting(DiarySearchHit::getId).containsExactly(walkTwice);
+        DiarySearchPage second = search("산책", null, 1, 1);
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getHits()).extracting(DiarySearchHit::getId).containsExactly(walk);
+
+        // 수정/삭제가 바로 검색에 반영된다.
+        diaryService.updateDiary(USER, sunny, CITY, "바다 구경");
+        assertThat(search("바다", null, 0, 10).getHits()).extracting(DiarySearchHit::getId).containsExactly(walk);
+        diaryService.deleteDiary(USER, sunny, CITY);
+        assertThat(search("바다", null, 0, 10).getHits()).isEmpty();
+
+        // 연산자 문자만 있는 검색어는 결과 없음
+        assertThat(search("+ - \"", null, 0, 10).getHits()).isEmpty();
+    }
+
+    @Test
+    void searchesArchivedDiariesToo() {
+        // 다른 테스트의 일기가 같이 옮겨지지 않도록 그보다 오래된 날짜를 쓴다.
+        LocalDate old = LocalDate.of(1985, 5, 5);
+        dateWeatherRepository.upsertAll(List.of(new DateWeather(old, CITY, "Clouds", "03d", 290.0)));
+        int archived = diaryService.createDiary(USER, old, CITY, "보관된 소풍 일기");
+        int hot = diaryService.createDiary(USER, LocalDate.of(2005, 6, 1), CITY, "소풍 소풍");
+        assertThat(diaryArchiveService.archive(old.plusDays(1))).isEqualTo(1);
+
+        // 보관된 일기도 같은 정렬(점수, 최근 순)로 합쳐지고 날씨도 붙는다.
+        assertThat(search("소풍", null, 0, 10).getHits())
+                .extracting(DiarySearchHit::getId).containsExactly(hot, archived);
+        assertThat(search("소풍", "Clouds", 0, 10).getHits())
+                .singleElement().satisfies(hit -> {
+                    assertThat(hit.getId()).isEqualTo(archived);
+                    assertThat(hit.getText()).isEqualTo("보관된 소풍 일기");
+                });
+        DiarySearchPage second = search("소풍", null, 1, 1);
+        assertThat(second.getHits()).extracting(DiarySearchHit::getId).containsExactly(archived);
+        assertThat(diaryService.searchDiaries(USER, "소풍", old, old, null, CITY, 0, 10).getHits())
+                .extracting(DiarySearchHit::getId).containsExactly(archived);
+    }
+
+    private DiarySearchPage search(String query, String weather, int page, int size) {
+        return diaryService.searchDiaries(USER, query, null, null, weather, CITY, page, size);
+    }
+}
@@ -0,0 +1,71 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.dto.DiaryStats;
+import zerobase.weather.repository.DateWeatherRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class DiaryStatsServiceTest {
+
+    private static final String USER = "stats-user";
+    private static final String CITY = "seoul";
+
+    @Autowired
+    private DiaryService diaryService;
+    @Autowired
+    private DiaryStatsService diaryStatsService;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @Test
+    void keepsMonthlyRollupInSyncWithDiaries() {
+        LocalDate jan1 = LocalDate.of(2005, 1, 1);
+        LocalDate jan2 = LocalDate.of(2005, 1, 2);
+        LocalDate feb1 = LocalDate.of(2005, 2, 1);
+        dateWeatherRepository.upsertAll(List.of(
+                new DateWeather(jan1, CITY, "Clear", "01d", 280.0),
+                new DateWeather(jan2, CITY, "Rain", "10d", 270.0),
+                new DateWeather(feb1, CITY, "Snow", "13d", 260.0)));
+
+        diaryService.createDiary(USER, jan1, CITY, "a");
+        diaryService.createDiary(USER, jan1, CITY, "b");
+        diaryService.createDiary(USER, jan2, CITY, "c");
+        diaryService.createDiary(USER, feb1, CITY, "d");
+
+        List<DiaryStats> monthly = diaryStatsService.readMonthly(USER, YearMonth.of(2005, 1), YearMonth.of(2005, 2), CITY);
+        assertThat(monthly).extracting(DiaryStats::getPeriod).containsExactly("2005-01", "2005-02");
+        assertThat(monthly.get(0).getDiaryCount()).isEqualTo(3);
+        assertThat(monthly.get(0).getAverageTemperature()).isCloseTo((280.0 * 2 + 270.0) / 3, within(1e-9));
+        assertThat(monthly.get(0).getWeatherCounts()).isEqualTo(Map.of("Clear", 2L, "Rain", 1L));
+
+        List<DiaryStats> yearly = diaryStatsService.readYearly(USER, 2005, 2005, CITY);
+        assertThat(yearly).singleElement().satisfies(stats -> {
+            assertThat(stats.getDiaryCount()).isEqualTo(4);
+            assertThat(stats.getWeatherCounts()).containsEntry("Snow", 1L);
+        });
+
+        // 하루 삭제(증분)와 기간 삭제(재집계)
+        diaryService.deleteDiary(USER, jan1, CITY);
+        assertThat(diaryStatsService.readMonthly(USER, YearMonth.of(2005, 1), YearMonth.of(2005, 1), CITY))
+                .singleElement().satisfies(stats -> assertThat(stats.getWeatherCounts()).isEqualTo(Map.of("Rain", 1L)));
+
+        diaryService.deleteDiaries(USER, jan1, feb1, CITY);
+        assertThat(diaryStatsService.readYearly(USER, 2005, 2005, CITY)).isEmpty();
+    }
+}
@@ -0,0 +1,168 @@
+package zerobase.weather.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.error.IngestQueueFull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// write-behind 큐: 크기/시간 기준 flush, 저장 실패 시 재시도와 dead-letter, 종료 시 남은 일기 저장
+class DiaryWriteBehindQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final DiaryBatchWriter writer = mock(DiaryBatchWriter.class);
+    // insertAll 이 성공한 batch (호출 후 batch 가 비워지므로 복사해 둔다)
+    private final BlockingQueue<List<Diary>> saved = new LinkedBlockingQueue<>();
+    private DiaryWriteBehindQueue queue;
+
+    @AfterEach
+    void stopQueue() throws InterruptedException {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void flushesWhenBatchIsFull() throws InterruptedException {
+        recordInserts();
+        queue = start(3, Duration.ofSeconds(10));
+
+        queue.enqueue(diary(1, "a"));
+        queue.enqueue(diary(2, "b"));
+        queue.enqueue(diary(3, "c"));
+
+        // flush-interval(10초)보다 훨씬 먼저 batch-size 로 저장된다.
+        assertThat(saved.poll(2, TimeUnit.SECONDS)).extracting(Diary::getId).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void flushesPartialBatchAfterInterval() throws InterruptedException {
+        recordInserts();
+        queue = start(100, Duration.ofMillis(100));
+
+        queue.enqueue(diary(1, "a"));
+
+        assertThat(saved.poll(2, TimeUnit.SECONDS)).extracting(Diary::getId).containsExactly(1);
+        assertThat(queue.pendingCount()).isZero();
+    }
+
+    @Test
+    void retriesThenSavesGoodDiariesAndDeadLettersBadOnes() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<Diary> batch = invocation.getArgument(0);
+            attempts.incrementAndGet();
+            if (batch.stream().anyMatch(diary -> diary.getText().equals("bad"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            saved.add(new ArrayList<>(batch));
+            return null;
+        }).when(writer).insertAll(anyList());
+        queue = start(2, Duration.ofSeconds(10));
+
+        queue.enqueue(diary(1, "good"));
+        queue.enqueue(diary(2, "bad"));
+
+        // batch 로 2번 시도한 뒤 한 건씩: good 은 저장, bad 는 dead-letter
+        assertThat(saved.poll(2, TimeUnit.SECONDS)).extracting(Diary::getId).containsExactly(1);
+        queue.stop();
+        queue = null;
+        assertThat(attempts.get()).isEqualTo(4);
+        List<String> deadLetters = Files.readAllLines(tempDir.resolve("dead-letter.ndjson"));
+        assertThat(deadLetters).singleElement().satisfies(line -> {
+            assertThat(line).contains("\"id\":2").contains("\"text\":\"bad\"").contains("\"userId\":\"queue-user\"");
+        });
+    }
+
+    @Test
+    void drainsQueueOnStopAndRejectsLateDiaries() throws Exception {
+        doAnswer(invocation -> {
+            Thread.sleep(20);
+            saved.add(new ArrayList<>(invocation.<List<Diary>>getArgument(0)));
+            return null;
+        }).when(writer).insertAll(anyList());
+        queue = start(2, Duration.ofMillis(50));
+
+        // 요청 스레드들이 넣는 동안 종료한다. 202(정상 반환)를 받은 일기는 모두 저장돼야 한다.
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 1_000_000;
+            producers.add(executor.submit(() -> {
+                for (int i = 0; ; i++) {
+                    try {
+                        queue.enqueue(diary(offset + i, "text"));
+                        accepted.incrementAndGet();
+                    } catch (IngestQueueFull e) {
+                        // 큐가 잠깐 찼을 때는 계속 넣고, 종료된 뒤에는 그만둔다.
+                        if (stopped.get()) {
+                            return;
+                        }
+                    }
+                }
+            }));
+        }
+        Thread.sleep(100);
+        queue.stop();
+        stopped.set(true);
+        for (Future<?> producer : producers) {
+            producer.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(queue.pendingCount()).isZero();
+        assertThat(saved.stream().mapToInt(List::size).sum()).isEqualTo(accepted.get());
+        assertThatThrownBy(() -> queue.enqueue(diary(-1, "late"))).isInstanceOf(IngestQueueFull.class);
+        queue = null;
+    }
+
+    private void recordInserts() {
+        doAnswer(invocation -> {
+            saved.add(new ArrayList<>(invocation.<List<Diary>>getArgument(0)));
+            return null;
+        }).when(writer).insertAll(anyList());
+    }
+
+    private DiaryWriteBehindQueue start(int batchSize, Duration flushInterval) {
+        DiaryWriteBehindQueue started = new DiaryWriteBehindQueue(writer, new ObjectMapper(), 100, batchSize,
+                flushInterval, Duration.ofMillis(10), 2, Duration.ofMillis(1), tempDir.resolve("dead-letter.ndjson"));
+        started.start();
+        return started;
+    }
+
+    private static Diary diary(int id, String text) {
+        Diary diary = new Diary();
+        diary.setId(id);
+        diary.setUserId("queue-user");
+        diary.setDate(LocalDate.of(2007, 7, 7));
+        diary.setCity("seoul");
+        diary.setText(text);
+        return diary;
+    }
+}
@@ -0,0 +1,45 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(3, 2, now::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.nanosUntilAvailable()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+
+        // 초당 2개: 0.5초 뒤 하나
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        // 오래 쉬어도 capacity 이상 쌓이지 않는다.
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(bucket.availableTokens()).isEqualTo(3.0);
+    }
+
+    @Test
+    void reserveWaitsOnlyUpToMaxWait() {
+        TokenBucket bucket = new TokenBucket(1, 1, now::get);
+
+        assertThat(bucket.reserve(0)).isZero();
+        // 다음 토큰은 1초 뒤, 예약하면 그 다음은 2초 뒤
+        assertThat(bucket.reserve(TimeUnit.MILLISECONDS.toNanos(500))).isEqualTo(-1);
+        assertThat(bucket.reserve(TimeUnit.SECONDS.toNanos(1))).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.reserve(TimeUnit.SECONDS.toNanos(1))).isEqualTo(-1);
+        assertThat(bucket.nanosUntilAvailable()).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+    }
+}
@@ -0,0 +1,175 @@
+package zerobase.weather.service;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import zerobase.weather.WeatherApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 플랫폼 스레드(tomcat 기본 200개)와 가상 스레드(virtual 프로필)의 최대 동시 처리 수와 꼬리 지연시간 비교 (./gradlew loadTest -PjavaVersion=21)
+// 매 요청이 캐시 miss 가 나서 스텁 날씨 api(지연 100ms)를 부르도록 날짜를 모두 다르게 준다.
+// p99 가 1초 이하이고 에러가 없는 가장 높은 동시 요청 수를 "유지 가능한 동시성"으로 본다.
+// 가상 스레드 실행 중에는 JFR jdk.VirtualThreadPinned 이벤트로 pinning 이 생기는지도 같이 본다.
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int[] CONCURRENCY = {50, 200, 800, 1600};
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final Duration API_LATENCY = Duration.ofMillis(100);
+    private static final Duration P99_SLO = Duration.ofSeconds(1);
+
+    private final AtomicInteger dayOffset = new AtomicInteger();
+
+    @Test
+    void compareWithPlatformThreads() throws Exception {
+        try (WeatherStubServer stubServer = new WeatherStubServer().latency(API_LATENCY)) {
+            int platform = run(stubServer, false);
+            if (Runtime.version().feature() < 21) {
+                System.out.println("virtual threads need Java 21, run with -PjavaVersion=21");
+                return;
+            }
+
+            Map<String, LongAdder> pinned = new ConcurrentHashMap<>();
+            int virtual;
+            try (RecordingStream recording = new RecordingStream()) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+                recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                    List<RecordedFrame> frames = event.getStackTrace() == null
+                            ? List.of() : event.getStackTrace().getFrames();
+                    // 테스트용 H2 는 내부가 synchronized 라서 제외 (운영 MySQL 드라이버 8.1+ 는 lock 사용)
+                    if (frames.stream().noneMatch(frame -> frame.getMethod().getType().getName().startsWith("org.h2."))) {
+                        pinned.computeIfAbsent(topFrames(frames), key -> new LongAdder()).increment();
+                    }
+                });
+                recording.startAsync();
+                virtual = run(stubServer, true);
+            }
+
+            System.out.printf("sustainable concurrency: platform=%d virtual=%d%n", platform, virtual);
+            pinned.forEach((frames, count) -> System.out.printf("pinned %d times at %s%n", count.sum(), frames));
+            assertThat(pinned).as("virtual threads pinned to carrier").isEmpty();
+            assertThat(virtual).isGreaterThanOrEqualTo(platform);
+        }
+    }
+
+    // 동시 요청 수를 늘려가며 측정하고, SLO 를 지킨 가장 높은 동시 요청 수를 돌려준다.
+    private int run(WeatherStubServer stubServer, boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WeatherApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "openweathermap.url=" + stubServer.url(),
+                        // 날씨 api 동시 요청 한도가 먼저 막지 않도록 크게
+                        "weather.client.max-concurrent-requests=100000",
+                        "weather.client.acquire-timeout=PT10S",
+                        "weather.client.quota.per-minute=100000000",
+                        "weather.client.quota.burst=100000",
+                        // 한 클라이언트에서 부하를 주므로 클라이언트별 한도는 끈다.
+                        "diary.rate-limit.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            int sustainable = 0;
+            for (int concurrency : CONCURRENCY) {
+                Result result = load(port, concurrency);
+                System.out.printf("%-8s concurrency=%5d %s%n", mode, concurrency, result);
+                if (result.errors == 0 && result.p99Millis <= P99_SLO.toMillis()) {
+                    sustainable = concurrency;
+                }
+            }
+            return sustainable;
+        } finally {
+            context.close();
+        }
+    }
+
+    private Result load(int port, int concurrency) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long[] latencies = new long[concurrency * REQUESTS_PER_CLIENT];
+        AtomicInteger index = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+        try {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            long start = System.nanoTime();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                        LocalDate date = LocalDate.of(2000, 1, 1).plusDays(dayOffset.getAndIncrement());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                                        "http://127.0.0.1:" + port + "/create/diary?city=seoul&date=" + date))
+                                .header("Content-Type", "application/json")
+                                .timeout(Duration.ofSeconds(30))
+                                .POST(HttpRequest.BodyPublishers.ofString("load test"))
+                                .build();
+                        long requestStart = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latencies[index.getAndIncrement()] = System.nanoTime() - requestStart;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+            return new Result(latencies.length / seconds,
+                    latencies[latencies.length / 2] / 1_000_000,
+                    latencies[latencies.length * 99 / 100] / 1_000_000,
+                    errors.sum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String topFrames(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(5)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .toList()
+                .toString();
+    }
+
+    private record Result(double throughput, long p50Millis, long p99Millis, long errors) {
+        @Override
+        public String toString() {
+            return String.format("throughput=%.0f req/s p50=%d ms p99=%d ms errors=%d",
+                    throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
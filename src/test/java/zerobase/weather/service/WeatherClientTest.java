@@ -0,0 +1,134 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.error.WeatherApiException.Reason;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeatherClientTest {
+
+    private WeatherStubServer stubServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubServer = new WeatherStubServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    private WeatherClient client(Duration requestTimeout, int maxConcurrentRequests) {
+        return client(new WeatherQuotaLimiter(60_000, 1000, 16, Duration.ZERO), requestTimeout, maxConcurrentRequests);
+    }
+
+    private WeatherClient client(WeatherQuotaLimiter quotaLimiter, Duration requestTimeout, int maxConcurrentRequests) {
+        return new WeatherClient(new WeatherParser(), quotaLimiter, new SimpleMeterRegistry(), "test-key",
+                stubServer.url(), Duration.ofSeconds(1), requestTimeout, maxConcurrentRequests, Duration.ofMillis(50),
+                false);
+    }
+
+    @Test
+    void fetchParsesWeather() {
+        DateWeather dateWeather = client(Duration.ofSeconds(2), 4).fetch("seoul");
+
+        assertThat(dateWeather.getWeather()).isEqualTo("Clear");
+        assertThat(dateWeather.getIcon()).isEqualTo("01d");
+        assertThat(dateWeather.getTemperature()).isEqualTo(282.55);
+        assertThat(stubServer.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void errorStatusIsTypedFailure() {
+        stubServer.status(401).body("{\"cod\":401,\"message\":\"Invalid API key\"}");
+
+        assertThatThrownBy(() -> client(Duration.ofSeconds(2), 4).fetch("seoul"))
+                .isInstanceOfSatisfying(WeatherApiException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(Reason.HTTP_STATUS);
+                    assertThat(e.getStatusCode()).isEqualTo(401);
+                });
+    }
+
+    @Test
+    void malformedBodyIsParseError() {
+        stubServer.body("failed to get response");
+
+        assertThatThrownBy(() -> client(Duration.ofSeconds(2), 4).fetch("seoul"))
+                .isInstanceOfSatisfying(WeatherApiException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(Reason.PARSE_ERROR));
+    }
+
+    @Test
+    void slowUpstreamTimesOut() {
+        stubServer.latency(Duration.ofMillis(500));
+
+        assertThatThrownBy(() -> client(Duration.ofMillis(100), 4).fetch("seoul"))
+                .isInstanceOfSatisfying(WeatherApiException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(Reason.TIMEOUT));
+    }
+
+    @Test
+    void slowBodyTimesOut() {
+        // 헤더는 바로 오고 본문이 늦게 오는 경우도 request-timeout 안에 끝난다.
+        stubServer.bodyDelay(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client(Duration.ofMillis(200), 4).fetch("seoul"))
+                .isInstanceOfSatisfying(WeatherApiException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(Reason.TIMEOUT));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void concurrentRequestsAreBounded() {
+        stubServer.latency(Duration.ofMillis(300));
+        WeatherClient weatherClient = client(Duration.ofSeconds(2), 1);
+
+        CompletableFuture<DateWeather> first = weatherClient.fetchAsync("seoul");
+        assertThatThrownBy(() -> weatherClient.fetch("seoul"))
+                .isInstanceOfSatisfying(WeatherApiException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(Reason.REJECTED));
+        assertThat(first.join().getWeather()).isEqualTo("Clear");
+    }
+
+    @Test
+    void quotaIsEnforcedBeforeCallingUpstream() {
+        // 분당 60번(초당 1번), 한 번에 2번까지, 토큰을 기다리는 건 300ms 까지
+        WeatherClient weatherClient = client(new WeatherQuotaLimiter(60, 2, 4, Duration.ofMillis(300)),
+                Duration.ofSeconds(2), 4);
+
+        weatherClient.fetch("seoul");
+        weatherClient.fetch("seoul");
+        assertThatThrownBy(() -> weatherClient.fetch("seoul"))
+                .isInstanceOfSatisfying(WeatherApiException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(Reason.RATE_LIMITED);
+                    assertThat(e.isRetryable()).isTrue();
+                });
+        assertThat(stubServer.requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchAsyncDoesNotBlockWhileWaitingForQuotaOrPermit() {
+        // 초당 1번, 한 번에 1번까지: 두번째 요청은 토큰을 약 1초 기다린다.
+        WeatherClient weatherClient = client(new WeatherQuotaLimiter(60, 1, 4, Duration.ofSeconds(2)),
+                Duration.ofSeconds(2), 1);
+        weatherClient.fetch("seoul");
+
+        long start = System.nanoTime();
+        CompletableFuture<DateWeather> waiting = weatherClient.fetchAsync("seoul");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+        assertThat(waiting).isNotDone();
+        assertThat(waiting.join().getWeather()).isEqualTo("Clear");
+        assertThat(stubServer.requestCount()).isEqualTo(2);
+    }
+}
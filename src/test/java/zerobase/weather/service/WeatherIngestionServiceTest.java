@@ -0,0 +1,79 @@
+package zerobase.weather.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.error.WeatherApiException;
+import zerobase.weather.error.WeatherApiException.Reason;
+import zerobase.weather.repository.DateWeatherRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "weather.cities=seoul,busan",
+        "weather.ingest.retry.max-attempts=3",
+        "weather.ingest.retry.initial-backoff=PT0.01S"
+})
+class WeatherIngestionServiceTest {
+
+    @Autowired
+    private WeatherIngestionService weatherIngestionService;
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+    @Autowired
+    private DateWeatherRepository dateWeatherRepository;
+    @MockBean
+    private WeatherClient weatherClient;
+
+    private static DateWeather clear() {
+        return new DateWeather(null, null, "Clear", "01d", 282.55);
+    }
+
+    @Test
+    void retriesRetryableFailuresAndUpsertsIdempotently() {
+        LocalDate date = LocalDate.of(2001, 1, 1);
+        given(weatherClient.fetch("seoul")).willReturn(clear());
+        given(weatherClient.fetch("busan"))
+                .willThrow(new WeatherApiException(Reason.TIMEOUT, "timeout"))
+                .willReturn(clear());
+
+        assertThat(weatherIngestionService.ingest(date)).hasSize(2);
+        verify(weatherClient, times(2)).fetch("busan");
+
+        // 같은 날짜를 다시 수집해도 행이 늘지 않고, 이미 저장된 도시는 다시 부르지 않는다.
+        weatherIngestionService.ingest(date);
+        assertThat(dateWeatherRepository.findAllByDate(date)).hasSize(2);
+        assertThat(weatherIngestionService.ingestMissing(date)).isEmpty();
+    }
+
+    @Test
+    void givesUpOnNonRetryableFailure() {
+        LocalDate date = LocalDate.of(2002, 1, 1);
+        given(weatherClient.fetch("seoul")).willReturn(clear());
+        given(weatherClient.fetch("busan"))
+                .willThrow(new WeatherApiException(Reason.HTTP_STATUS, "unauthorized", 401, null));
+
+        assertThat(weatherIngestionService.ingest(date)).hasSize(1);
+        verify(weatherClient, times(1)).fetch("busan");
+        assertThat(weatherIngestionService.missingCities(date)).containsExactly("busan");
+    }
+
+    @Test
+    void lockIsHeldByOneRunAtATime() {
+        assertThat(schedulerLockService.tryLock("test-job", Duration.ofMinutes(1))).isTrue();
+        assertThat(schedulerLockService.runLocked("test-job", Duration.ofMinutes(1), () -> { })).isFalse();
+
+        schedulerLockService.unlock("test-job");
+        assertThat(schedulerLockService.runLocked("test-job", Duration.ofMinutes(1), () -> { })).isTrue();
+    }
+}
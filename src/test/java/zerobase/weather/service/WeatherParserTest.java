@@ -0,0 +1,79 @@
+package zerobase.weather.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+import zerobase.weather.domain.DateWeather;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// open weather_map 응답에서 main.temp, weather[0].main, weather[0].icon 만 꺼내는지,
+// 값이 빠졌거나 json 이 아니면 IOException(WeatherClient 에서 PARSE_ERROR)으로 실패하는지 확인
+class WeatherParserTest {
+
+    private final WeatherParser parser = new WeatherParser();
+
+    @Test
+    void parsesFullResponse() throws IOException {
+        DateWeather dateWeather = parse(WeatherStubServer.OK_BODY);
+
+        assertThat(dateWeather.getWeather()).isEqualTo("Clear");
+        assertThat(dateWeather.getIcon()).isEqualTo("01d");
+        assertThat(dateWeather.getTemperature()).isEqualTo(282.55);
+        // 날짜, 도시는 호출한 쪽이 채운다.
+        assertThat(dateWeather.getDate()).isNull();
+        assertThat(dateWeather.getCity()).isNull();
+    }
+
+    @Test
+    void streamAndByteArrayGiveTheSameResult() throws IOException {
+        DateWeather fromStream = parser.parse(
+                new ByteArrayInputStream(WeatherStubServer.OK_BODY.getBytes(StandardCharsets.UTF_8)));
+        DateWeather fromBytes = parse(WeatherStubServer.OK_BODY);
+
+        assertThat(fromStream).usingRecursiveComparison().isEqualTo(fromBytes);
+    }
+
+    @Test
+    void skipsExtraFieldsAndKeepsOnlyTheFirstWeather() throws IOException {
+        String body = "{\"coord\":{\"lon\":126.98,\"lat\":37.57},"
+                + "\"weather\":[{\"main\":\"Rain\",\"icon\":\"10d\",\"extra\":{\"nested\":[1,2,3]}},"
+                + "{\"main\":\"Mist\",\"icon\":\"50d\"}],"
+                + "\"main\":{\"feels_like\":{\"day\":1},\"temp\":275,\"pressure\":1012},"
+                + "\"unknown\":[{\"main\":\"Snow\"}],\"cod\":200}";
+
+        DateWeather dateWeather = parse(body);
+
+        assertThat(dateWeather.getWeather()).isEqualTo("Rain");
+        assertThat(dateWeather.getIcon()).isEqualTo("10d");
+        assertThat(dateWeather.getTemperature()).isEqualTo(275.0);
+    }
+
+    @Test
+    void missingFieldsFail() {
+        assertThatThrownBy(() -> parse("{\"weather\":[{\"main\":\"Clear\",\"icon\":\"01d\"}]}"))
+                .isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> parse("{\"main\":{\"temp\":280.0}}"))
+                .isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> parse("{\"weather\":[],\"main\":{\"temp\":280.0}}"))
+                .isInstanceOf(JsonProcessingException.class);
+        assertThatThrownBy(() -> parse("{\"weather\":[{\"main\":\"Clear\"}],\"main\":{\"humidity\":100}}"))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void malformedOrEmptyBodyFails() {
+        assertThatThrownBy(() -> parse("failed to get response")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("{\"weather\":[{\"main\":\"Clear\"")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("[1, 2]")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("")).isInstanceOf(IOException.class);
+    }
+
+    private DateWeather parse(String body) throws IOException {
+        return parser.parse(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
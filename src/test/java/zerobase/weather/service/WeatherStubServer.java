@@ -0,0 +1,90 @@
+package zerobase.weather.service;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// open weather_map 대신 쓰는 로컬 스텁 서버
+// 응답 지연, 본문 지연, 상태 코드, 본문을 바꿔가면서 클라이언트의 timeout/실패 처리를 오프라인으로 확인할 수 있다.
+public class WeatherStubServer implements AutoCloseable {
+
+    public static final String OK_BODY = "{\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+            + "\"main\":{\"temp\":282.55,\"humidity\":100},\"name\":\"Seoul\",\"cod\":200}";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration bodyDelay = Duration.ZERO;
+    private volatile int status = 200;
+    private volatile String body = OK_BODY;
+
+    public WeatherStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/data/2.5/weather", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                // 헤더와 본문 앞부분을 먼저 보내고 나머지는 bodyDelay 뒤에 보낸다.
+                int half = bytes.length / 2;
+                out.write(bytes, 0, half);
+                out.flush();
+                Thread.sleep(bodyDelay.toMillis());
+                out.write(bytes, half, bytes.length - half);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/data/2.5/weather";
+    }
+
+    public WeatherStubServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public WeatherStubServer bodyDelay(Duration bodyDelay) {
+        this.bodyDelay = bodyDelay;
+        return this;
+    }
+
+    public WeatherStubServer status(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public WeatherStubServer body(String body) {
+        this.body = body;
+        return this;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}